@@ -0,0 +1,51 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import com.google.re2j.Pattern;
+import com.networknt.schema.regex.RegularExpression;
+import com.networknt.schema.regex.RegularExpressionFactory;
+import com.networknt.schema.regex.RegularExpressions;
+
+/**
+ * The RegularExpressionFactory backed by RE2/J which matches in linear time and is not
+ * susceptible to catastrophic backtracking.
+ *
+ * RE2/J does not support backreferences or lookaround, schemas using those constructs will fail to
+ * load. The com.google.re2j:re2j dependency must be added to use this factory.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+public class Re2jRegularExpressionFactory implements RegularExpressionFactory {
+
+    private static final Re2jRegularExpressionFactory INSTANCE = new Re2jRegularExpressionFactory();
+
+    /**
+     * Gets the shared instance of the Re2jRegularExpressionFactory class
+     *
+     * @return the Re2jRegularExpressionFactory
+     */
+    public static Re2jRegularExpressionFactory getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public RegularExpression getRegularExpression(String regex) {
+        // Normalize the ECMA-262 syntax the same way the JDK factory does
+        String normalized = RegularExpressions
+                .replaceLongformCharacterProperties(RegularExpressions.replaceDollarAnchors(regex));
+        Pattern pattern = Pattern.compile(normalized);
+        return value -> pattern.matcher(value).find();
+    }
+}
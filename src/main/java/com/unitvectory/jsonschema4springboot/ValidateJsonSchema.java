@@ -40,4 +40,43 @@ public @interface ValidateJsonSchema {
      * @return the JSON Schema version
      */
     ValidateJsonSchemaVersion version();
+
+    /**
+     * Whether the body is a patch to a resource described by the schema. A JSON Patch is expected
+     * when the Content-Type is application/json-patch+json, otherwise a JSON Merge Patch is
+     * expected. Only the parts of the schema touched by the patch are validated and the patch
+     * document itself is bound to the parameter.
+     * 
+     * @return true if the body is a patch; false otherwise
+     */
+    boolean patch() default false;
+
+    /**
+     * The time budget in milliseconds for validating the body against the schema, the
+     * validation is stopped and a {@link ValidateJsonSchemaTimeoutException} thrown once
+     * exceeded. Zero disables the budget and a negative value uses
+     * {@link ValidateJsonSchemaConfig#getValidationTimeout()}.
+     * 
+     * @return the time budget in milliseconds
+     */
+    long validationTimeoutMillis() default -1;
+
+    /**
+     * Whether the defaults of the schema are set on the body where a property is missing. The
+     * defaults are applied while the body is validated, so required properties with a default
+     * are satisfied and the body bound to the parameter includes them. Ignored for patches.
+     * 
+     * @return true to apply the defaults of the schema; false otherwise
+     */
+    boolean applyDefaults() default false;
+
+    /**
+     * Whether strings in the body are converted to the type of their property while it is
+     * validated, such as "42" for an integer or "true" for a boolean. Only strings that are
+     * exactly the JSON representation of the value are converted and properties that allow
+     * strings are left as is. Ignored for patches.
+     * 
+     * @return true to coerce strings to the type of their property; false otherwise
+     */
+    boolean coerceTypes() default false;
 }
@@ -13,9 +13,22 @@
  */
 package com.unitvectory.jsonschema4springboot;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.ZipException;
 import org.springframework.core.MethodParameter;
 import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.support.WebDataBinderFactory;
@@ -24,18 +37,28 @@ import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.ModelAndViewContainer;
 
 import com.networknt.schema.Error;
+import com.networknt.schema.ExecutionContext;
 import com.networknt.schema.InputFormat;
+import com.networknt.schema.OutputFormat;
 import com.networknt.schema.Schema;
 import com.networknt.schema.SchemaLocation;
 import com.networknt.schema.SchemaRegistry;
 import com.networknt.schema.SchemaRegistryConfig;
 import com.networknt.schema.SpecificationVersion;
+import com.networknt.schema.dialect.DefaultDialectRegistry;
+import com.networknt.schema.regex.JDKRegularExpressionFactory;
+import com.networknt.schema.regex.RegularExpressionFactory;
 import com.networknt.schema.serialization.DefaultNodeReader;
+import com.networknt.schema.walk.WalkConfig;
+import tools.jackson.core.exc.JacksonIOException;
 import tools.jackson.core.exc.StreamReadException;
+import tools.jackson.databind.JavaType;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.NonNull;
 
 /**
@@ -43,13 +66,39 @@ import lombok.NonNull;
  * 
  * @author Jared Hatfield (UnitVectorY Labs)
  */
-public class ValidateJsonSchemaArgumentResolver implements HandlerMethodArgumentResolver {
+public class ValidateJsonSchemaArgumentResolver
+        implements HandlerMethodArgumentResolver, AutoCloseable {
+
+    /**
+     * The Content-Encoding request header
+     */
+    private static final String CONTENT_ENCODING = "Content-Encoding";
 
     /**
      * The schema registries, one per schema version
      */
     private final ConcurrentHashMap<ValidateJsonSchemaVersion, SchemaRegistry> registries;
 
+    /**
+     * The compiled schemas keyed by path, one map per schema version
+     */
+    private final ConcurrentHashMap<ValidateJsonSchemaVersion, ConcurrentHashMap<String, ValidateJsonSchemaCacheEntry>> schemas;
+
+    /**
+     * The patch validators, one per schema
+     */
+    private final ConcurrentHashMap<Schema, ValidateJsonSchemaPatchValidator> patchValidators;
+
+    /**
+     * The concurrency limiters, one per schema
+     */
+    private final ConcurrentHashMap<Schema, ValidateJsonSchemaConcurrencyLimiter> limiters;
+
+    /**
+     * Applies the defaults and coerces the types of the schemas
+     */
+    private final ValidateJsonSchemaDefaults defaults;
+
     /**
      * The schema registry config used for all schemas
      */
@@ -60,6 +109,21 @@ public class ValidateJsonSchemaArgumentResolver implements HandlerMethodArgument
      */
     private final ObjectMapper objectMapper;
 
+    /**
+     * The object mappers used to parse other content types, keyed by media type
+     */
+    private final Map<String, ObjectMapper> contentTypeObjectMappers;
+
+    /**
+     * The readers used to parse request bodies, keyed by media type with null for JSON
+     */
+    private final Map<String, ObjectReader> treeReaders;
+
+    /**
+     * The payload sampler, null if sampling is disabled
+     */
+    private final ValidateJsonSchemaPayloadSampler sampler;
+
     /**
      * The configuration
      */
@@ -72,8 +136,38 @@ public class ValidateJsonSchemaArgumentResolver implements HandlerMethodArgument
      */
     private ValidateJsonSchemaArgumentResolver(ValidateJsonSchemaConfig config) {
         this.registries = new ConcurrentHashMap<>();
+        this.schemas = new ConcurrentHashMap<>();
+        this.patchValidators = new ConcurrentHashMap<>();
+        this.limiters = new ConcurrentHashMap<>();
         this.objectMapper = config.getObjectMapper();
-        this.schemaRegistryConfig = config.getSchemaRegistryConfig();
+        this.defaults = new ValidateJsonSchemaDefaults(this.objectMapper.tokenStreamFactory()
+                .streamReadConstraints().getMaxNumberLength());
+        this.contentTypeObjectMappers = new HashMap<>();
+        for (Map.Entry<String, ObjectMapper> entry : config.getContentTypeObjectMappers()
+                .entrySet()) {
+            this.contentTypeObjectMappers.put(entry.getKey().toLowerCase(Locale.ROOT),
+                    entry.getValue());
+        }
+        this.treeReaders = new HashMap<>();
+        this.treeReaders.put(null, treeReader(this.objectMapper, config));
+        for (Map.Entry<String, ObjectMapper> entry : this.contentTypeObjectMappers.entrySet()) {
+            this.treeReaders.put(entry.getKey(), treeReader(entry.getValue(), config));
+        }
+        SchemaRegistryConfig registryConfig = config.getSchemaRegistryConfig();
+        RegularExpressionFactory regularExpressionFactory = config.getRegularExpressionFactory();
+        if (regularExpressionFactory == null) {
+            regularExpressionFactory = registryConfig.getRegularExpressionFactory();
+        }
+        if (regularExpressionFactory == null) {
+            regularExpressionFactory = JDKRegularExpressionFactory.getInstance();
+        }
+        this.schemaRegistryConfig = SchemaRegistryConfig.builder(registryConfig)
+                .regularExpressionFactory(new ValidateJsonSchemaRegexFactory(
+                        regularExpressionFactory, config.isRegexBacktrackingCheckEnabled()))
+                .build();
+        this.sampler = config.getPayloadSampleRate() > 0
+                ? new ValidateJsonSchemaPayloadSampler(this.objectMapper, config)
+                : null;
         this.config = config;
     }
 
@@ -113,6 +207,364 @@ public class ValidateJsonSchemaArgumentResolver implements HandlerMethodArgument
         // Get the annotation
         ValidateJsonSchema validateJsonSchema = parameter.getParameterAnnotation(ValidateJsonSchema.class);
 
+        // Load the schema
+        Schema schema = getSchema(validateJsonSchema);
+
+        HttpServletRequest httpServletRequest = webRequest.getNativeRequest(HttpServletRequest.class);
+        ValidateJsonSchemaTiming timing = new ValidateJsonSchemaTiming();
+        try {
+            return readValue(validateJsonSchema, schema,
+                    this.objectMapper.constructType(parameter.getParameterType()),
+                    httpServletRequest.getInputStream(), httpServletRequest.getContentType(),
+                    httpServletRequest.getHeader(CONTENT_ENCODING), timing, this.sampler);
+        } finally {
+            publishTiming(httpServletRequest,
+                    webRequest.getNativeResponse(HttpServletResponse.class), timing);
+        }
+    }
+
+    /**
+     * Loads the schema ahead of the first request so that it is compiled, including its regular
+     * expressions, and any schema errors are raised at startup.
+     * 
+     * @param schemaPath        the path to the schema
+     * @param jsonSchemaVersion the JSON Schema version of the schema
+     */
+    public void preloadSchema(@NonNull String schemaPath,
+            @NonNull ValidateJsonSchemaVersion jsonSchemaVersion) {
+        getCacheEntry(schemaPath, jsonSchemaVersion);
+    }
+
+    /**
+     * Evicts a loaded schema so that it is loaded and compiled again the next time it is used,
+     * picking up any changes to the schema.
+     * 
+     * @param schemaPath        the path to the schema
+     * @param jsonSchemaVersion the JSON Schema version of the schema
+     * @return true if the schema was loaded and has been evicted
+     */
+    public boolean evictSchema(@NonNull String schemaPath,
+            @NonNull ValidateJsonSchemaVersion jsonSchemaVersion) {
+        Map<String, ValidateJsonSchemaCacheEntry> versionSchemas = this.schemas
+                .get(jsonSchemaVersion);
+        ValidateJsonSchemaCacheEntry entry = versionSchemas != null
+                ? versionSchemas.remove(schemaPath)
+                : null;
+        if (entry == null) {
+            return false;
+        }
+
+        // The registry keeps every schema it has loaded, so it is replaced for the schema to be
+        // released, the other schemas of the version stay cached here
+        this.registries.remove(jsonSchemaVersion);
+        this.patchValidators.remove(entry.getSchema());
+        this.limiters.remove(entry.getSchema());
+        this.defaults.remove(entry.getSchema());
+        return true;
+    }
+
+    /**
+     * Gets the schemas that are loaded, with their compile time, usage and estimated size.
+     * 
+     * @return the schemas sorted by path for each JSON Schema version that has a registry
+     */
+    public Map<ValidateJsonSchemaVersion, List<ValidateJsonSchemaCacheInfo>> getSchemaCache() {
+        Map<ValidateJsonSchemaVersion, List<ValidateJsonSchemaCacheInfo>> cache = new EnumMap<>(
+                ValidateJsonSchemaVersion.class);
+        this.schemas.forEach((version, versionSchemas) -> {
+            List<ValidateJsonSchemaCacheInfo> infos = new ArrayList<>();
+            versionSchemas.forEach(
+                    (schemaPath, entry) -> infos.add(entry.toInfo(schemaPath, version)));
+            infos.sort(Comparator.comparing(ValidateJsonSchemaCacheInfo::getSchemaPath));
+            cache.put(version, infos);
+        });
+
+        return cache;
+    }
+
+    /**
+     * Stops the payload sampler once the queued samples are written. Spring calls this on
+     * shutdown when the resolver is declared as a bean.
+     */
+    @Override
+    public void close() {
+        if (this.sampler != null) {
+            this.sampler.close();
+        }
+    }
+
+    /**
+     * Reads the body, validating it against the schema of the annotation if present, and binds
+     * it to the type. Used by {@link ValidateJsonSchemaHttpMessageConverter} so that both share
+     * the compiled schemas.
+     * 
+     * @param validateJsonSchema the annotation, null to skip validation
+     * @param type               the type to bind to
+     * @param body               the request body
+     * @param contentType        the Content-Type header, may be null
+     * @param contentEncoding    the Content-Encoding header, may be null
+     * @param request            the request the timing is published to, may be null
+     * @param response           the response the Server-Timing header is added to, may be null
+     * @return the bound value
+     * @throws IOException if the body could not be read
+     */
+    Object readValue(ValidateJsonSchema validateJsonSchema, JavaType type, InputStream body,
+            String contentType, String contentEncoding, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Schema schema = validateJsonSchema != null ? getSchema(validateJsonSchema) : null;
+        ValidateJsonSchemaTiming timing = new ValidateJsonSchemaTiming();
+        try {
+            return readValue(validateJsonSchema, schema, type, body, contentType,
+                    contentEncoding, timing, this.sampler);
+        } finally {
+            if (request != null) {
+                publishTiming(request, response, timing);
+            }
+        }
+    }
+
+    /**
+     * Reads the body, validating it against the schema of the annotation, and binds it to the
+     * type without sampling it. Used by {@link ValidateJsonSchemaReplay} so that replaying the
+     * samples does not write them again.
+     * 
+     * @param validateJsonSchema the annotation
+     * @param type               the type to bind to
+     * @param body               the body
+     * @param contentType        the Content-Type of the body, may be null
+     * @return the bound value
+     * @throws IOException if the body could not be read
+     */
+    Object replayValue(@NonNull ValidateJsonSchema validateJsonSchema, JavaType type,
+            InputStream body, String contentType) throws IOException {
+        return readValue(validateJsonSchema, getSchema(validateJsonSchema), type, body,
+                contentType, null, new ValidateJsonSchemaTiming(), null);
+    }
+
+    /**
+     * Gets the payload sampler
+     * 
+     * @return the sampler, null if sampling is disabled
+     */
+    ValidateJsonSchemaPayloadSampler getPayloadSampler() {
+        return this.sampler;
+    }
+
+    /**
+     * Gets the object mapper used to bind values
+     * 
+     * @return the object mapper
+     */
+    ObjectMapper getObjectMapper() {
+        return this.objectMapper;
+    }
+
+    /**
+     * Gets the content types, other than JSON, that bodies can be parsed from
+     * 
+     * @return the content types
+     */
+    Set<String> getContentTypes() {
+        return this.contentTypeObjectMappers.keySet();
+    }
+
+    private Object readValue(ValidateJsonSchema validateJsonSchema, Schema schema, JavaType type,
+            InputStream body, String contentType, String contentEncoding,
+            ValidateJsonSchemaTiming timing, ValidateJsonSchemaPayloadSampler sampler)
+            throws IOException {
+        // Read and parse into a JsonNode, needed for validation
+        JsonNode json = readBody(body, contentType, contentEncoding, timing);
+
+        if (schema != null) {
+            if (sampler != null) {
+                sampler.sample(validateJsonSchema, contentType, json);
+            }
+
+            // Validate the Json
+            ValidateJsonSchemaConcurrencyLimiter limiter = acquire(schema);
+            long parsed = System.nanoTime();
+            List<Error> validationResult;
+            try {
+                validationResult = validate(validateJsonSchema, schema, json, contentType);
+            } finally {
+                long validateNanos = System.nanoTime() - parsed;
+                timing.setValidateNanos(validateNanos);
+                if (limiter != null) {
+                    limiter.release(validateNanos);
+                }
+            }
+
+            if (!validationResult.isEmpty()) {
+                // Throw the validation exception
+                throw new ValidateJsonSchemaException(validationResult);
+            }
+        }
+
+        // Convert the JSON into the object
+        long validated = System.nanoTime();
+        Object value = this.objectMapper.treeToValue(json, type);
+        timing.setBindNanos(System.nanoTime() - validated);
+        return value;
+    }
+
+    private JsonNode readBody(InputStream inputStream, String contentType,
+            String contentEncoding, ValidateJsonSchemaTiming timing) throws IOException {
+        if (this.config.isRequestDecompressionEnabled()
+                && ValidateJsonSchemaContentDecoder.isEncoded(contentEncoding)) {
+            // Compressed bodies are inflated as they are parsed so the inflated body is never
+            // buffered, the read phase is therefore included in the parse phase
+            long start = System.nanoTime();
+            try (InputStream body = ValidateJsonSchemaContentDecoder.decode(contentEncoding,
+                    inputStream, this.config.getMaxInflatedSize(),
+                    this.config.getMaxCompressionRatio())) {
+                return readTree(contentType, body);
+            } catch (StreamReadException ex) {
+                throw new ValidateJsonSchemaException(ex);
+            } catch (JacksonIOException ex) {
+                // Errors reading the body while parsing are wrapped by Jackson, only the errors
+                // of the encoding are caused by the payload
+                if (isDecodingError(ex.getCause())) {
+                    throw new ValidateJsonSchemaException(
+                            String.valueOf(ex.getCause().getMessage()), ex);
+                } else if (ex.getCause() != null) {
+                    throw ex.getCause();
+                }
+
+                throw ex;
+            } catch (ValidateJsonSchemaContentDecoder.DecodingException | ZipException ex) {
+                throw new ValidateJsonSchemaException(String.valueOf(ex.getMessage()), ex);
+            } finally {
+                timing.setParseNanos(System.nanoTime() - start);
+            }
+        }
+
+        // Get the request body
+        long start = System.nanoTime();
+        byte[] body = StreamUtils.copyToByteArray(inputStream);
+        long read = System.nanoTime();
+        timing.setReadNanos(read - start);
+
+        try {
+            return readTree(contentType, body);
+        } catch (StreamReadException ex) {
+            throw new ValidateJsonSchemaException(ex);
+        } finally {
+            timing.setParseNanos(System.nanoTime() - read);
+        }
+    }
+
+    private static boolean isDecodingError(Throwable throwable) {
+        return throwable instanceof ValidateJsonSchemaContentDecoder.DecodingException
+                || throwable instanceof ZipException;
+    }
+
+    private JsonNode readTree(String contentType, byte[] body) {
+        ObjectReader reader = getContentTypeReader(contentType);
+        if (reader != null) {
+            // Binary formats are parsed directly from the bytes
+            return reader.readTree(body);
+        }
+
+        return this.treeReaders.get(null).readTree(new String(body, StandardCharsets.UTF_8));
+    }
+
+    private JsonNode readTree(String contentType, InputStream body) {
+        ObjectReader reader = getContentTypeReader(contentType);
+        if (reader != null) {
+            return reader.readTree(body);
+        }
+
+        return this.treeReaders.get(null)
+                .readTree(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
+    private ObjectReader getContentTypeReader(String contentType) {
+        if (contentType == null || this.contentTypeObjectMappers.isEmpty()) {
+            return null;
+        }
+
+        // Parameters such as charset do not affect the choice of parser
+        int parameters = contentType.indexOf(';');
+        String mediaType = (parameters < 0 ? contentType : contentType.substring(0, parameters))
+                .trim().toLowerCase(Locale.ROOT);
+        return this.treeReaders.get(mediaType);
+    }
+
+    private static ObjectReader treeReader(ObjectMapper mapper, ValidateJsonSchemaConfig config) {
+        ObjectReader reader = mapper.reader();
+        return config.isCompactNodesEnabled() ? reader.with(ValidateJsonSchemaNodeFactory.INSTANCE)
+                : reader;
+    }
+
+    private ValidateJsonSchemaConcurrencyLimiter acquire(Schema schema) {
+        if (!this.config.isConcurrencyLimitEnabled()) {
+            return null;
+        }
+
+        ValidateJsonSchemaConcurrencyLimiter limiter = this.limiters.computeIfAbsent(schema,
+                s -> new ValidateJsonSchemaConcurrencyLimiter(
+                        this.config.getInitialConcurrencyLimit(),
+                        this.config.getMaxConcurrencyLimit()));
+        try {
+            if (limiter.acquire(this.config.getConcurrencyLimitTimeout().toNanos())) {
+                return limiter;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        throw new ValidateJsonSchemaRejectedException(
+                "JSON Schema validation concurrency limit reached");
+    }
+
+    private List<Error> validate(ValidateJsonSchema validateJsonSchema, Schema schema,
+            JsonNode json, String contentType) {
+        ValidateJsonSchemaDeadline deadline = null;
+        long timeoutMillis = validateJsonSchema.validationTimeoutMillis() < 0
+                ? this.config.getValidationTimeout().toMillis()
+                : validateJsonSchema.validationTimeoutMillis();
+        if (timeoutMillis > 0) {
+            deadline = new ValidateJsonSchemaDeadline(
+                    TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+        }
+
+        if (validateJsonSchema.patch()) {
+            return validatePatch(schema, json, contentType, deadline);
+        }
+
+        WalkConfig walkConfig = this.defaults.getWalkConfig(schema,
+                validateJsonSchema.applyDefaults(), validateJsonSchema.coerceTypes());
+        if (walkConfig != null) {
+            // Walking with validation updates the body in the same pass as it is validated
+            ExecutionContext executionContext = deadline != null
+                    ? deadline.createExecutionContext(schema)
+                    : schema.createExecutionContext();
+            return schema.walk(executionContext, json, OutputFormat.DEFAULT, true,
+                    (Consumer<ExecutionContext>) context -> context.setWalkConfig(walkConfig));
+        } else if (deadline != null) {
+            return schema.validate(deadline.createExecutionContext(schema), json,
+                    OutputFormat.DEFAULT);
+        } else {
+            return schema.validate(json);
+        }
+    }
+
+    private List<Error> validatePatch(Schema schema, JsonNode json, String contentType,
+            ValidateJsonSchemaDeadline deadline) {
+        // The patch validator caches the sub-schemas so it is kept per schema
+        ValidateJsonSchemaPatchValidator patchValidator = this.patchValidators.computeIfAbsent(
+                schema, s -> new ValidateJsonSchemaPatchValidator(s,
+                        this.schemaRegistryConfig.getPathType(),
+                        this.schemaRegistryConfig.getRegularExpressionFactory()));
+
+        if (ValidateJsonSchemaPatchValidator.isJsonPatch(contentType)) {
+            return patchValidator.validateJsonPatch(json, deadline);
+        } else {
+            return patchValidator.validateMergePatch(json, deadline);
+        }
+    }
+
+    private Schema getSchema(ValidateJsonSchema validateJsonSchema) {
         String schemaPath = validateJsonSchema.schemaPath();
         if (schemaPath == null) {
             throw new LoadJsonSchemaException(
@@ -124,6 +576,30 @@ public class ValidateJsonSchemaArgumentResolver implements HandlerMethodArgument
             throw new LoadJsonSchemaException("version is null in @ValidateJsonSchema annotation");
         }
 
+        return getSchema(schemaPath, jsonSchemaVersion);
+    }
+
+    private Schema getSchema(String schemaPath, ValidateJsonSchemaVersion jsonSchemaVersion) {
+        ValidateJsonSchemaCacheEntry entry = getCacheEntry(schemaPath, jsonSchemaVersion);
+        entry.used();
+        return entry.getSchema();
+    }
+
+    private ValidateJsonSchemaCacheEntry getCacheEntry(String schemaPath,
+            ValidateJsonSchemaVersion jsonSchemaVersion) {
+        ConcurrentHashMap<String, ValidateJsonSchemaCacheEntry> versionSchemas = this.schemas
+                .computeIfAbsent(jsonSchemaVersion, v -> new ConcurrentHashMap<>());
+        ValidateJsonSchemaCacheEntry entry = versionSchemas.get(schemaPath);
+        if (entry != null) {
+            return entry;
+        }
+
+        return versionSchemas.computeIfAbsent(schemaPath,
+                p -> loadSchema(schemaPath, jsonSchemaVersion));
+    }
+
+    private ValidateJsonSchemaCacheEntry loadSchema(String schemaPath,
+            ValidateJsonSchemaVersion jsonSchemaVersion) {
         // Get the registry for the version, only one registry per version as the
         // caching is utilized and in theory there could be multiple versions used
         // concurrently
@@ -131,35 +607,55 @@ public class ValidateJsonSchemaArgumentResolver implements HandlerMethodArgument
                 v -> createRegistry(jsonSchemaVersion));
 
         // Load the schema
-        Schema schema;
+        long start = System.nanoTime();
         try {
-            schema = registry.getSchema(SchemaLocation.of(schemaPath));
+            Schema schema = registry.getSchema(SchemaLocation.of(schemaPath));
+            return new ValidateJsonSchemaCacheEntry(schema, System.nanoTime() - start);
         } catch (Exception e) {
             throw new LoadJsonSchemaException("JSON Schema failed to load from path: " + schemaPath,
                     e);
         }
+    }
 
-        // Get the JSON as a String
-        HttpServletRequest httpServletRequest = webRequest.getNativeRequest(HttpServletRequest.class);
-        String jsonString = StreamUtils.copyToString(httpServletRequest.getInputStream(),
-                StandardCharsets.UTF_8);
+    private void publishTiming(HttpServletRequest httpServletRequest,
+            HttpServletResponse httpServletResponse, ValidateJsonSchemaTiming timing) {
+        // The phases of all the validated parameters of a request are added up
+        ValidateJsonSchemaTiming total = timing;
+        String previousServerTiming = null;
+        Object attribute = httpServletRequest.getAttribute(ValidateJsonSchemaTiming.ATTRIBUTE);
+        if (attribute instanceof ValidateJsonSchemaTiming previous) {
+            previousServerTiming = previous.toServerTiming();
+            previous.add(timing);
+            total = previous;
+        } else {
+            httpServletRequest.setAttribute(ValidateJsonSchemaTiming.ATTRIBUTE, timing);
+        }
 
-        // Parse into a JsonNode, needed for validation
-        JsonNode json;
-        try {
-            json = objectMapper.readTree(jsonString);
-        } catch (StreamReadException ex) {
-            throw new ValidateJsonSchemaException(ex);
+        // The response is not available in all contexts, the header is skipped if so
+        String serverTiming = total.toServerTiming();
+        if (!this.config.isServerTimingEnabled() || httpServletResponse == null
+                || serverTiming.isEmpty()) {
+            return;
         }
 
-        // Validate the Json
-        List<Error> validationResult = schema.validate(json);
-        if (validationResult.isEmpty()) {
-            // Convert the JSON into the object
-            return objectMapper.treeToValue(json, parameter.getParameterType());
-        } else {
-            // Throw the validation exception
-            throw new ValidateJsonSchemaException(validationResult);
+        // The header added for a previous parameter is replaced by the total
+        List<String> values = previousServerTiming != null
+                ? new ArrayList<>(httpServletResponse
+                        .getHeaders(ValidateJsonSchemaTiming.SERVER_TIMING_HEADER))
+                : new ArrayList<>();
+        int index = values.indexOf(previousServerTiming);
+        if (index < 0) {
+            httpServletResponse.addHeader(ValidateJsonSchemaTiming.SERVER_TIMING_HEADER,
+                    serverTiming);
+            return;
+        }
+
+        values.set(index, serverTiming);
+        httpServletResponse.setHeader(ValidateJsonSchemaTiming.SERVER_TIMING_HEADER,
+                values.get(0));
+        for (int i = 1; i < values.size(); i++) {
+            httpServletResponse.addHeader(ValidateJsonSchemaTiming.SERVER_TIMING_HEADER,
+                    values.get(i));
         }
     }
 
@@ -169,6 +665,10 @@ public class ValidateJsonSchemaArgumentResolver implements HandlerMethodArgument
         builder.defaultDialectId(specVersion.getDialectId());
         builder.schemaRegistryConfig(this.schemaRegistryConfig);
         builder.nodeReader(DefaultNodeReader.builder().jsonMapper(this.objectMapper).build());
+        if (config.isDiscriminatorEnabled()) {
+            builder.dialectRegistry(new ValidateJsonSchemaDialectRegistry(
+                    DefaultDialectRegistry.getInstance(), config.getDiscriminatorPropertyName()));
+        }
         config.customizeSchemaRegistryBuilder(builder, validateJsonSchemaVersion);
         return builder.build();
     }
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import com.networknt.schema.Schema;
+import lombok.Getter;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * A compiled schema cached by the resolver along with its usage.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+class ValidateJsonSchemaCacheEntry {
+
+    /**
+     * The estimated bytes of an object header and reference fields
+     */
+    private static final int OBJECT_BYTES = 16;
+
+    /**
+     * The estimated bytes of a map entry, including its share of the table
+     */
+    private static final int ENTRY_BYTES = 40;
+
+    /**
+     * The estimated bytes of a string excluding its characters
+     */
+    private static final int STRING_BYTES = 40;
+
+    /**
+     * The estimated bytes of the compiled validator for a keyword
+     */
+    private static final int KEYWORD_BYTES = 96;
+
+    /**
+     * The precision of the last used time
+     */
+    private static final long LAST_USED_RESOLUTION_MILLIS = 1000;
+
+    @Getter
+    private final Schema schema;
+
+    private final long compileNanos;
+
+    private final long estimatedSize;
+
+    private final LongAdder hits = new LongAdder();
+
+    private volatile long lastUsedMillis;
+
+    /**
+     * Creates a new instance of the ValidateJsonSchemaCacheEntry class
+     *
+     * @param schema       the compiled schema
+     * @param compileNanos the time taken to load and compile the schema
+     */
+    ValidateJsonSchemaCacheEntry(Schema schema, long compileNanos) {
+        this.schema = schema;
+        this.compileNanos = compileNanos;
+        this.estimatedSize = estimateSize(schema.getSchemaNode());
+    }
+
+    /**
+     * Records that the schema was used to validate a request
+     */
+    void used() {
+        this.hits.increment();
+
+        // The time is only written once per resolution so that requests using the same schema
+        // do not all write the same field
+        long now = System.currentTimeMillis();
+        if (now - this.lastUsedMillis >= LAST_USED_RESOLUTION_MILLIS) {
+            this.lastUsedMillis = now;
+        }
+    }
+
+    /**
+     * Gets a snapshot of the entry
+     *
+     * @param schemaPath the path to the schema
+     * @param version    the JSON Schema version of the schema
+     * @return the snapshot
+     */
+    ValidateJsonSchemaCacheInfo toInfo(String schemaPath, ValidateJsonSchemaVersion version) {
+        long lastUsed = this.lastUsedMillis;
+        return new ValidateJsonSchemaCacheInfo(schemaPath, version,
+                Duration.ofNanos(this.compileNanos), this.hits.sum(),
+                lastUsed == 0 ? null : Instant.ofEpochMilli(lastUsed), this.estimatedSize);
+    }
+
+    /**
+     * Estimates the heap retained by a schema from its document. Each node of the document is
+     * counted at its approximate shallow size and each object property, which the schema compiles
+     * into a keyword validator, adds the approximate size of a validator. Referenced documents
+     * are not included.
+     *
+     * @param node the schema document
+     * @return the estimated bytes
+     */
+    static long estimateSize(JsonNode node) {
+        if (node == null) {
+            return 0;
+        }
+
+        if (node.isObject()) {
+            long size = OBJECT_BYTES * 3;
+            for (Map.Entry<String, JsonNode> entry : node.properties()) {
+                size += ENTRY_BYTES + KEYWORD_BYTES + STRING_BYTES + entry.getKey().length()
+                        + estimateSize(entry.getValue());
+            }
+
+            return size;
+        } else if (node.isArray()) {
+            long size = OBJECT_BYTES * 2 + 8L * node.size();
+            for (JsonNode element : node) {
+                size += estimateSize(element);
+            }
+
+            return size;
+        } else if (node.isString()) {
+            return OBJECT_BYTES + STRING_BYTES + node.asString().length();
+        }
+
+        return OBJECT_BYTES + 8;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import java.time.Duration;
+import java.time.Instant;
+import lombok.Getter;
+
+/**
+ * A snapshot of a schema loaded by the resolver, see
+ * {@link ValidateJsonSchemaArgumentResolver#getSchemaCache()}.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+@Getter
+public class ValidateJsonSchemaCacheInfo {
+
+    /**
+     * The path to the schema
+     */
+    private final String schemaPath;
+
+    /**
+     * The JSON Schema version of the schema
+     */
+    private final ValidateJsonSchemaVersion version;
+
+    /**
+     * The time taken to load and compile the schema
+     */
+    private final Duration compileTime;
+
+    /**
+     * The number of times the schema was used, not counting when it was loaded
+     */
+    private final long hits;
+
+    /**
+     * The last time the schema was used, to within a second, null if it has only been loaded
+     */
+    private final Instant lastUsed;
+
+    /**
+     * The estimated bytes retained by the compiled schema
+     */
+    private final long estimatedSize;
+
+    /**
+     * Creates a new instance of the ValidateJsonSchemaCacheInfo class
+     *
+     * @param schemaPath    the path to the schema
+     * @param version       the JSON Schema version
+     * @param compileTime   the time taken to load and compile the schema
+     * @param hits          the number of times the schema was used
+     * @param lastUsed      the last time the schema was used, may be null
+     * @param estimatedSize the estimated bytes retained by the schema
+     */
+    ValidateJsonSchemaCacheInfo(String schemaPath, ValidateJsonSchemaVersion version,
+            Duration compileTime, long hits, Instant lastUsed, long estimatedSize) {
+        this.schemaPath = schemaPath;
+        this.version = version;
+        this.compileTime = compileTime;
+        this.hits = hits;
+        this.lastUsed = lastUsed;
+        this.estimatedSize = estimatedSize;
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * The properties of an object node kept in insertion order in two arrays, searched linearly. A
+ * {@link LinkedHashMap} allocates a table and an entry per property, which for the small objects
+ * that make up most documents is several times the size of the properties themselves. Once an
+ * object has more than {@link #MAX_ARRAY_SIZE} properties they are moved to a
+ * {@link LinkedHashMap}.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+class ValidateJsonSchemaCompactMap extends AbstractMap<String, JsonNode> {
+
+    /**
+     * The number of properties above which a hash map is used
+     */
+    static final int MAX_ARRAY_SIZE = 8;
+
+    private static final int INITIAL_SIZE = 4;
+
+    private String[] keys;
+
+    private JsonNode[] values;
+
+    private int size;
+
+    private Map<String, JsonNode> map;
+
+    @Override
+    public int size() {
+        return this.map != null ? this.map.size() : this.size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return this.map != null ? this.map.containsKey(key) : indexOf(key) >= 0;
+    }
+
+    @Override
+    public JsonNode get(Object key) {
+        if (this.map != null) {
+            return this.map.get(key);
+        }
+
+        int index = indexOf(key);
+        return index >= 0 ? this.values[index] : null;
+    }
+
+    @Override
+    public JsonNode put(String key, JsonNode value) {
+        if (this.map != null) {
+            return this.map.put(key, value);
+        }
+
+        int index = indexOf(key);
+        if (index >= 0) {
+            JsonNode previous = this.values[index];
+            this.values[index] = value;
+            return previous;
+        }
+
+        if (this.size == MAX_ARRAY_SIZE) {
+            this.map = new LinkedHashMap<>();
+            for (int i = 0; i < this.size; i++) {
+                this.map.put(this.keys[i], this.values[i]);
+            }
+
+            this.keys = null;
+            this.values = null;
+            this.size = 0;
+            return this.map.put(key, value);
+        }
+
+        if (this.keys == null) {
+            this.keys = new String[INITIAL_SIZE];
+            this.values = new JsonNode[INITIAL_SIZE];
+        } else if (this.size == this.keys.length) {
+            this.keys = Arrays.copyOf(this.keys, MAX_ARRAY_SIZE);
+            this.values = Arrays.copyOf(this.values, MAX_ARRAY_SIZE);
+        }
+
+        this.keys[this.size] = key;
+        this.values[this.size] = value;
+        this.size++;
+        return null;
+    }
+
+    @Override
+    public JsonNode remove(Object key) {
+        if (this.map != null) {
+            return this.map.remove(key);
+        }
+
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+
+        JsonNode previous = this.values[index];
+        removeAt(index);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        this.keys = null;
+        this.values = null;
+        this.size = 0;
+        this.map = null;
+    }
+
+    @Override
+    public Set<Map.Entry<String, JsonNode>> entrySet() {
+        if (this.map != null) {
+            return this.map.entrySet();
+        }
+
+        return new EntrySet();
+    }
+
+    private int indexOf(Object key) {
+        // Property names are canonicalized by the parser so the identity check usually matches
+        for (int i = 0; i < this.size; i++) {
+            if (this.keys[i] == key) {
+                return i;
+            }
+        }
+
+        if (key == null) {
+            return -1;
+        }
+
+        for (int i = 0; i < this.size; i++) {
+            if (key.equals(this.keys[i])) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private void removeAt(int index) {
+        int moved = this.size - index - 1;
+        System.arraycopy(this.keys, index + 1, this.keys, index, moved);
+        System.arraycopy(this.values, index + 1, this.values, index, moved);
+        this.size--;
+        this.keys[this.size] = null;
+        this.values[this.size] = null;
+    }
+
+    /**
+     * The properties while they are kept in the arrays
+     */
+    private class EntrySet extends AbstractSet<Map.Entry<String, JsonNode>> {
+
+        @Override
+        public int size() {
+            return ValidateJsonSchemaCompactMap.this.size;
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, JsonNode>> iterator() {
+            return new Iterator<Map.Entry<String, JsonNode>>() {
+
+                private int next;
+
+                private int last = -1;
+
+                @Override
+                public boolean hasNext() {
+                    return this.next < ValidateJsonSchemaCompactMap.this.size;
+                }
+
+                @Override
+                public Map.Entry<String, JsonNode> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+
+                    this.last = this.next++;
+                    return new Entry(this.last);
+                }
+
+                @Override
+                public void remove() {
+                    if (this.last < 0) {
+                        throw new IllegalStateException();
+                    }
+
+                    removeAt(this.last);
+                    this.next = this.last;
+                    this.last = -1;
+                }
+            };
+        }
+    }
+
+    /**
+     * A property, writing through to the arrays
+     */
+    private class Entry implements Map.Entry<String, JsonNode> {
+
+        private final int index;
+
+        Entry(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public String getKey() {
+            return ValidateJsonSchemaCompactMap.this.keys[this.index];
+        }
+
+        @Override
+        public JsonNode getValue() {
+            return ValidateJsonSchemaCompactMap.this.values[this.index];
+        }
+
+        @Override
+        public JsonNode setValue(JsonNode value) {
+            JsonNode previous = ValidateJsonSchemaCompactMap.this.values[this.index];
+            ValidateJsonSchemaCompactMap.this.values[this.index] = value;
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry<?, ?> entry && Objects.equals(getKey(), entry.getKey())
+                    && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
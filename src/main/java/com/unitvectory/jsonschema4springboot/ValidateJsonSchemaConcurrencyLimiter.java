@@ -0,0 +1,222 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the concurrent validations of a schema. The limit adapts to the observed latency: it
+ * shrinks when the short term latency rises above the long term latency, as happens when
+ * validations compete for CPU and memory, and grows while the limit is being used and the latency
+ * is stable.
+ * <p>
+ * Permits are acquired and released with atomic operations, the lock is only taken to wait for a
+ * permit and to wake a waiting thread. The latency is sampled by one thread at a time, a release
+ * while another thread updates the latency skips its sample.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+class ValidateJsonSchemaConcurrencyLimiter {
+
+    /**
+     * How much the short term latency may exceed the long term latency before the limit shrinks
+     */
+    private static final double TOLERANCE = 1.5;
+
+    /**
+     * The weight of a sample in the short term latency
+     */
+    private static final double SHORT_WEIGHT = 0.1;
+
+    /**
+     * The weight of a sample in the long term latency
+     */
+    private static final double LONG_WEIGHT = 0.005;
+
+    /**
+     * The weight of a new limit compared to the current limit
+     */
+    private static final double SMOOTHING = 0.2;
+
+    /**
+     * The lock waiting threads wait on
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition released = this.lock.newCondition();
+
+    /**
+     * The lock guarding the latency and the limit while they are updated
+     */
+    private final ReentrantLock sampleLock = new ReentrantLock();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * The number of threads waiting for a permit, only changed while holding the lock
+     */
+    private volatile int waiting;
+
+    /**
+     * The limit as used to acquire permits
+     */
+    private volatile int permits;
+
+    private final int maxLimit;
+
+    private double limit;
+
+    private double shortNanos;
+
+    private double longNanos;
+
+    /**
+     * Creates a new instance of the ValidateJsonSchemaConcurrencyLimiter class
+     *
+     * @param initialLimit the initial limit
+     * @param maxLimit     the maximum limit
+     */
+    ValidateJsonSchemaConcurrencyLimiter(int initialLimit, int maxLimit) {
+        this.maxLimit = Math.max(1, maxLimit);
+        this.limit = Math.max(1, Math.min(initialLimit, this.maxLimit));
+        this.permits = (int) this.limit;
+    }
+
+    /**
+     * Acquires a permit, waiting up to the timeout for one to be released
+     *
+     * @param timeoutNanos the maximum time to wait, zero to not wait
+     * @return true if the permit was acquired; false otherwise
+     * @throws InterruptedException if interrupted while waiting
+     */
+    boolean acquire(long timeoutNanos) throws InterruptedException {
+        if (tryAcquire()) {
+            return true;
+        } else if (timeoutNanos <= 0) {
+            return false;
+        }
+
+        long remaining = timeoutNanos;
+        this.lock.lockInterruptibly();
+        try {
+            // Counted before trying again so a release either frees the permit in time for the
+            // attempt or sees the waiting thread and signals it
+            this.waiting++;
+            try {
+                while (!tryAcquire()) {
+                    if (remaining <= 0) {
+                        return false;
+                    }
+
+                    remaining = this.released.awaitNanos(remaining);
+                }
+            } finally {
+                this.waiting--;
+            }
+
+            // More permits than the one released may be available after the limit grew
+            if (this.waiting > 0 && this.inFlight.get() < this.permits) {
+                this.released.signal();
+            }
+
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Releases a permit and updates the limit with the latency of the validation
+     *
+     * @param latencyNanos the time the validation took
+     */
+    void release(long latencyNanos) {
+        int inFlightAtSample = this.inFlight.getAndDecrement();
+        if (this.sampleLock.tryLock()) {
+            try {
+                update(latencyNanos, inFlightAtSample);
+            } finally {
+                this.sampleLock.unlock();
+            }
+        }
+
+        if (this.waiting > 0) {
+            this.lock.lock();
+            try {
+                this.released.signal();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Gets the current limit
+     *
+     * @return the limit
+     */
+    int getLimit() {
+        return this.permits;
+    }
+
+    /**
+     * Gets the number of validations in flight
+     *
+     * @return the number of validations
+     */
+    int getInFlight() {
+        return this.inFlight.get();
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            int current = this.inFlight.get();
+            if (current >= this.permits) {
+                return false;
+            } else if (this.inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void update(long latencyNanos, int inFlightAtSample) {
+        if (this.longNanos == 0) {
+            this.shortNanos = latencyNanos;
+            this.longNanos = latencyNanos;
+            return;
+        }
+
+        this.shortNanos += (latencyNanos - this.shortNanos) * SHORT_WEIGHT;
+        this.longNanos += (latencyNanos - this.longNanos) * LONG_WEIGHT;
+
+        // Lets the long term latency catch up after the latency drops
+        if (this.longNanos > this.shortNanos * 2) {
+            this.longNanos *= 0.95;
+        }
+
+        // The limit is only adjusted while it is being used
+        if (inFlightAtSample < this.limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5,
+                Math.min(1.0, TOLERANCE * this.longNanos / this.shortNanos));
+        double newLimit = this.limit * gradient + Math.sqrt(this.limit);
+        this.limit = Math.max(1,
+                Math.min(this.maxLimit, this.limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+        this.permits = (int) this.limit;
+    }
+}
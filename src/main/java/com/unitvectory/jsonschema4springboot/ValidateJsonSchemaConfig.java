@@ -13,10 +13,16 @@
  */
 package com.unitvectory.jsonschema4springboot;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
 import tools.jackson.databind.ObjectMapper;
 import com.networknt.schema.SchemaRegistry;
 import com.networknt.schema.SchemaRegistryConfig;
 import com.networknt.schema.path.PathType;
+import com.networknt.schema.regex.RegularExpressionFactory;
 import com.networknt.schema.serialization.JsonMapperFactory;
 
 /**
@@ -35,6 +41,18 @@ public interface ValidateJsonSchemaConfig {
         return JsonMapperFactory.getInstance();
     }
 
+    /**
+     * Get the object mappers used to parse request bodies of other content types, such as CBOR or
+     * Smile, keyed by the media type without parameters. The parsed body is validated against the
+     * same schemas and bound with {@link #getObjectMapper()}. Content types not listed are parsed
+     * as JSON.
+     * 
+     * @return the object mappers by content type
+     */
+    default Map<String, ObjectMapper> getContentTypeObjectMappers() {
+        return Collections.emptyMap();
+    }
+
     /**
      * Get the SchemaRegistryConfig
      * 
@@ -44,9 +62,56 @@ public interface ValidateJsonSchemaConfig {
         return SchemaRegistryConfig.builder()
                 .pathType(PathType.LEGACY)
                 .errorMessageKeyword("message")
+                .preloadSchema(true)
                 .build();
     }
 
+    /**
+     * Get the RegularExpressionFactory used to compile the pattern and patternProperties
+     * keywords. When set this takes precedence over the factory of
+     * {@link #getSchemaRegistryConfig()}. {@link Re2jRegularExpressionFactory} can be used for
+     * linear-time matching.
+     *
+     * @return the RegularExpressionFactory, null to use the factory of the SchemaRegistryConfig
+     */
+    default RegularExpressionFactory getRegularExpressionFactory() {
+        return null;
+    }
+
+    /**
+     * Whether schemas containing patterns at risk of catastrophic backtracking fail to load, as
+     * determined by {@link ValidateJsonSchemaRegexAnalyzer}.
+     *
+     * @return true to reject risky patterns; false otherwise
+     */
+    default boolean isRegexBacktrackingCheckEnabled() {
+        return false;
+    }
+
+    /**
+     * Whether oneOf and anyOf keywords validate only the branch selected by a discriminating
+     * property instead of evaluating every branch. The property is taken from an OpenAPI style
+     * discriminator keyword next to the oneOf or anyOf, or from
+     * {@link #getDiscriminatorPropertyName()}. Only applies when every branch declares the
+     * property as a const or enum. Valid payloads produce the same result, invalid payloads only
+     * report the errors of the selected branch.
+     *
+     * @return true to dispatch on the discriminating property; false otherwise
+     */
+    default boolean isDiscriminatorEnabled() {
+        return false;
+    }
+
+    /**
+     * Get the discriminating property name for oneOf and anyOf keywords that do not have a
+     * discriminator keyword.
+     *
+     * @return the property name, null to only use the discriminator keyword
+     */
+    default String getDiscriminatorPropertyName() {
+        return null;
+    }
+
     /**
      * Customizes the SchemaRegistry builder
      * 
@@ -56,4 +121,157 @@ public interface ValidateJsonSchemaConfig {
     default void customizeSchemaRegistryBuilder(SchemaRegistry.Builder builder,
             ValidateJsonSchemaVersion version) {
     }
+
+    /**
+     * Whether the per-phase timing is written to the response as a Server-Timing header. The
+     * timing is always available as the {@link ValidateJsonSchemaTiming#ATTRIBUTE} request
+     * attribute.
+     *
+     * @return true to add the Server-Timing header; false otherwise
+     */
+    default boolean isServerTimingEnabled() {
+        return false;
+    }
+
+    /**
+     * Whether request bodies with a gzip or deflate Content-Encoding are decoded. The body is
+     * inflated as it is parsed rather than buffered, and is rejected once it exceeds
+     * {@link #getMaxInflatedSize()} or {@link #getMaxCompressionRatio()}.
+     *
+     * @return true to decode compressed request bodies; false otherwise
+     */
+    default boolean isRequestDecompressionEnabled() {
+        return false;
+    }
+
+    /**
+     * Get the maximum size in bytes of a decompressed request body
+     *
+     * @return the maximum size in bytes
+     */
+    default long getMaxInflatedSize() {
+        return 10L * 1024 * 1024;
+    }
+
+    /**
+     * Get the maximum ratio of decompressed to compressed bytes of a request body. The ratio is
+     * only enforced once the decompressed body exceeds 64 KiB.
+     *
+     * @return the maximum compression ratio
+     */
+    default int getMaxCompressionRatio() {
+        return 100;
+    }
+
+    /**
+     * Whether the number of concurrent validations is limited per schema. The limit starts at
+     * {@link #getInitialConcurrencyLimit()} and adapts to the observed validation latency, up to
+     * {@link #getMaxConcurrencyLimit()}. Requests over the limit wait up to
+     * {@link #getConcurrencyLimitTimeout()} and are then rejected with a
+     * {@link ValidateJsonSchemaRejectedException}.
+     *
+     * @return true to limit concurrent validations; false otherwise
+     */
+    default boolean isConcurrencyLimitEnabled() {
+        return false;
+    }
+
+    /**
+     * Get the initial number of concurrent validations per schema
+     *
+     * @return the initial limit
+     */
+    default int getInitialConcurrencyLimit() {
+        return 20;
+    }
+
+    /**
+     * Get the maximum number of concurrent validations per schema
+     *
+     * @return the maximum limit
+     */
+    default int getMaxConcurrencyLimit() {
+        return 200;
+    }
+
+    /**
+     * Get the maximum time a request waits for a validation slot before being rejected
+     *
+     * @return the timeout, zero to reject immediately
+     */
+    default Duration getConcurrencyLimitTimeout() {
+        return Duration.ZERO;
+    }
+
+    /**
+     * Get the default time budget for validating a body against its schema. A validation that
+     * exceeds the budget is stopped and a {@link ValidateJsonSchemaTimeoutException} is thrown.
+     * Can be overridden per parameter with {@link ValidateJsonSchema#validationTimeoutMillis()}.
+     *
+     * @return the time budget, zero for no budget
+     */
+    default Duration getValidationTimeout() {
+        return Duration.ZERO;
+    }
+
+    /**
+     * Get the fraction of request bodies written to the payload sample files, along with the
+     * attributes of their annotation. The samples can be replayed with
+     * {@link ValidateJsonSchemaReplay} to benchmark with realistic payloads.
+     *
+     * @return the fraction between 0 and 1, 0 disables sampling
+     */
+    default double getPayloadSampleRate() {
+        return 0;
+    }
+
+    /**
+     * Get the directory the payload sample files are written to, required when sampling is
+     * enabled. The directory and files are created readable only by the owner.
+     *
+     * @return the directory, null if not set
+     */
+    default Path getPayloadSampleDirectory() {
+        return null;
+    }
+
+    /**
+     * Get the names of the fields whose values are redacted in the payload samples, at any depth
+     *
+     * @return the field names
+     */
+    default Set<String> getPayloadSampleRedactedFields() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * Get the size in bytes after which the payload sample file is rotated
+     *
+     * @return the maximum file size in bytes
+     */
+    default long getPayloadSampleMaxFileSize() {
+        return 10L * 1024 * 1024;
+    }
+
+    /**
+     * Get the number of payload sample files kept, including the current file
+     *
+     * @return the number of files
+     */
+    default int getPayloadSampleMaxFiles() {
+        return 5;
+    }
+
+    /**
+     * Whether request bodies are parsed into compact nodes. Objects with few properties are backed
+     * by arrays instead of a hash map, arrays start smaller and the nodes of small integers are
+     * shared, reducing the heap held per request for large documents. The nodes behave as the
+     * standard nodes for validation and binding. Lookups in objects with many properties and
+     * nodes created by the application are not affected.
+     *
+     * @return true to parse request bodies into compact nodes; false otherwise
+     */
+    default boolean isCompactNodesEnabled() {
+        return false;
+    }
 }
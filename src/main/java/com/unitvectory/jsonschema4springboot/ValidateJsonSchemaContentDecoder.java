@@ -0,0 +1,241 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Decodes gzip and deflate request bodies as a stream, enforcing a limit on the inflated size and
+ * the compression ratio so that decompression bombs are rejected before they allocate memory.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+class ValidateJsonSchemaContentDecoder {
+
+    /**
+     * The inflated size below which the compression ratio is not enforced, small payloads of
+     * repetitive JSON can legitimately compress very well
+     */
+    private static final long RATIO_THRESHOLD = 64 * 1024;
+
+    private ValidateJsonSchemaContentDecoder() {
+    }
+
+    /**
+     * Checks if the content encoding requires decoding
+     *
+     * @param contentEncoding the Content-Encoding header, may be null
+     * @return true if the body is encoded; false otherwise
+     */
+    static boolean isEncoded(String contentEncoding) {
+        return contentEncoding != null && !contentEncoding.isBlank()
+                && !"identity".equalsIgnoreCase(contentEncoding.trim());
+    }
+
+    /**
+     * Wraps the body in a decoding stream
+     *
+     * @param contentEncoding     the Content-Encoding header
+     * @param body                the encoded body
+     * @param maxInflatedSize     the maximum number of decoded bytes
+     * @param maxCompressionRatio the maximum ratio of decoded to encoded bytes
+     * @return the decoded body
+     * @throws IOException if the encoding is not supported or the body cannot be decoded
+     */
+    static InputStream decode(String contentEncoding, InputStream body, long maxInflatedSize,
+            int maxCompressionRatio) throws IOException {
+        CountingInputStream compressed = new CountingInputStream(body);
+        InputStream inflated;
+        switch (contentEncoding.trim().toLowerCase(Locale.ROOT)) {
+            case "gzip":
+            case "x-gzip":
+                try {
+                    inflated = new GZIPInputStream(compressed);
+                } catch (EOFException ex) {
+                    throw truncated(compressed, ex);
+                }
+                break;
+            case "deflate":
+                inflated = new InflaterInputStream(compressed);
+                break;
+            default:
+                throw new DecodingException(
+                        "Content-Encoding '" + contentEncoding + "' is not supported");
+        }
+
+        return new LimitedInputStream(inflated, compressed, maxInflatedSize, maxCompressionRatio);
+    }
+
+    /**
+     * Converts the end of the encoded body before the decoder expected it into a decoding error,
+     * an EOFException raised while the body has not ended is the request failing and is rethrown
+     *
+     * @param compressed the encoded body
+     * @param ex         the exception
+     * @return the decoding error
+     * @throws EOFException if the encoded body has not ended
+     */
+    private static DecodingException truncated(CountingInputStream compressed, EOFException ex)
+            throws EOFException {
+        if (!compressed.ended) {
+            throw ex;
+        }
+
+        return new DecodingException("Compressed payload is truncated", ex);
+    }
+
+    /**
+     * The exception thrown when the body cannot be decoded within the limits
+     */
+    static class DecodingException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        DecodingException(String message) {
+            super(message);
+        }
+
+        DecodingException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Counts the bytes read from the encoded body
+     */
+    private static class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private boolean ended;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                this.count++;
+            } else {
+                this.ended = true;
+            }
+
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                this.count += n;
+            } else if (n < 0) {
+                this.ended = true;
+            }
+
+            return n;
+        }
+    }
+
+    /**
+     * Enforces the limits on the decoded body as it is read
+     */
+    private static class LimitedInputStream extends FilterInputStream {
+
+        private final CountingInputStream compressed;
+
+        private final long maxInflatedSize;
+
+        private final int maxCompressionRatio;
+
+        private long count;
+
+        LimitedInputStream(InputStream in, CountingInputStream compressed, long maxInflatedSize,
+                int maxCompressionRatio) {
+            super(in);
+            this.compressed = compressed;
+            this.maxInflatedSize = maxInflatedSize;
+            this.maxCompressionRatio = maxCompressionRatio;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b;
+            try {
+                b = super.read();
+            } catch (EOFException ex) {
+                throw truncated(this.compressed, ex);
+            }
+
+            if (b >= 0) {
+                inflated(1);
+            }
+
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n;
+            try {
+                n = super.read(b, off, len);
+            } catch (EOFException ex) {
+                throw truncated(this.compressed, ex);
+            }
+
+            if (n > 0) {
+                inflated(n);
+            }
+
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped;
+            try {
+                skipped = super.skip(n);
+            } catch (EOFException ex) {
+                throw truncated(this.compressed, ex);
+            }
+
+            if (skipped > 0) {
+                inflated(skipped);
+            }
+
+            return skipped;
+        }
+
+        private void inflated(long n) throws DecodingException {
+            this.count += n;
+            if (this.count > this.maxInflatedSize) {
+                throw new DecodingException(
+                        "Decompressed payload exceeds " + this.maxInflatedSize + " bytes");
+            }
+
+            if (this.count > RATIO_THRESHOLD
+                    && this.count > this.compressed.count * this.maxCompressionRatio) {
+                throw new DecodingException("Decompressed payload exceeds compression ratio of "
+                        + this.maxCompressionRatio);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import com.networknt.schema.CollectorContext;
+import com.networknt.schema.ExecutionConfig;
+import com.networknt.schema.ExecutionContext;
+import com.networknt.schema.Schema;
+
+/**
+ * The time budget of a single validation. The validation is stopped once the budget is exceeded
+ * by checking the clock every {@value #CHECK_INTERVAL} keyword evaluations, so that the check
+ * does not slow down validations that complete in time. A deadline is used by a single thread.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+class ValidateJsonSchemaDeadline {
+
+    /**
+     * The number of keyword evaluations between checks of the clock, a power of two
+     */
+    static final int CHECK_INTERVAL = 256;
+
+    private final long budgetNanos;
+
+    private final long deadlineNanos;
+
+    private int evaluations;
+
+    /**
+     * Creates a new instance of the ValidateJsonSchemaDeadline class starting now
+     *
+     * @param budgetNanos the time budget
+     */
+    ValidateJsonSchemaDeadline(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+        this.deadlineNanos = System.nanoTime() + budgetNanos;
+    }
+
+    /**
+     * Creates the execution context for validating against the schema within the deadline
+     *
+     * @param schema the schema
+     * @return the execution context
+     */
+    ExecutionContext createExecutionContext(Schema schema) {
+        // Carries over the configuration the registry would have applied
+        ExecutionContext base = schema.createExecutionContext();
+        ExecutionContext executionContext = new DeadlineExecutionContext(
+                base.getExecutionConfig(), base.getCollectorContext());
+        executionContext.setWalkConfig(base.getWalkConfig());
+        executionContext.setFailFast(base.isFailFast());
+        return executionContext;
+    }
+
+    /**
+     * Counts a keyword evaluation, checking the clock at the interval
+     *
+     * @throws ValidateJsonSchemaTimeoutException if the deadline has passed
+     */
+    void evaluated() {
+        if ((++this.evaluations & (CHECK_INTERVAL - 1)) == 0) {
+            check();
+        }
+    }
+
+    /**
+     * Checks the clock
+     *
+     * @throws ValidateJsonSchemaTimeoutException if the deadline has passed
+     */
+    void check() {
+        if (System.nanoTime() - this.deadlineNanos > 0) {
+            throw new ValidateJsonSchemaTimeoutException("JSON Schema validation exceeded "
+                    + (this.budgetNanos / 1_000_000) + " ms");
+        }
+    }
+
+    /**
+     * The execution context notified for every keyword evaluated
+     */
+    private class DeadlineExecutionContext extends ExecutionContext {
+
+        DeadlineExecutionContext(ExecutionConfig executionConfig,
+                CollectorContext collectorContext) {
+            super(executionConfig, collectorContext);
+        }
+
+        @Override
+        public void evaluationPathAddLast(String token) {
+            // Called by the schema before evaluating each keyword
+            evaluated();
+            super.evaluationPathAddLast(token);
+        }
+    }
+}
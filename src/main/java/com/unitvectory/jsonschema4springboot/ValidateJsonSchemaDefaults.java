@@ -0,0 +1,312 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import com.networknt.schema.Error;
+import com.networknt.schema.Schema;
+import com.networknt.schema.keyword.KeywordValidator;
+import com.networknt.schema.keyword.PropertiesValidator;
+import com.networknt.schema.path.NodePath;
+import com.networknt.schema.walk.KeywordWalkHandler;
+import com.networknt.schema.walk.WalkConfig;
+import com.networknt.schema.walk.WalkEvent;
+import com.networknt.schema.walk.WalkFlow;
+import com.networknt.schema.walk.WalkListener;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Applies the defaults of the schema and coerces strings to the types of the schema while the
+ * body is validated, see {@link ValidateJsonSchema#applyDefaults()} and
+ * {@link ValidateJsonSchema#coerceTypes()}. The body is walked with validation and a listener on
+ * the properties and required keywords updates each object before its properties are validated,
+ * so nested objects, including those reached through references and allOf, are handled in the
+ * same pass.
+ * <p>
+ * Only the properties with a default or type directly in their subschema are handled. Defaults
+ * are copied into the body so that it does not share nodes with the schema. Subschemas that may
+ * be evaluated without applying to the body, the branches of oneOf and anyOf, not, if and
+ * contains, do not update it as the body is updated before it is known whether they match.
+ * Numbers are only coerced within the number length of the parser.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+class ValidateJsonSchemaDefaults {
+
+    private static final Pattern INTEGER = Pattern.compile("-?(0|[1-9][0-9]*)");
+
+    private static final Pattern NUMBER = Pattern
+            .compile("-?(0|[1-9][0-9]*)(\\.[0-9]+)?([eE][+-]?[0-9]+)?");
+
+    /**
+     * The largest exponent of a coerced number, as allowed by Jackson when converting a decimal
+     * to an integer
+     */
+    private static final int MAX_SCALE = 100_000;
+
+    /**
+     * The keywords before which the object is updated, required so that it sees the defaults
+     */
+    private static final String[] KEYWORDS = { "properties", "required" };
+
+    /**
+     * The keywords whose subschemas may not apply to the body
+     */
+    private static final Set<String> CONDITIONAL_KEYWORDS = Set.of("oneOf", "anyOf", "not", "if",
+            "contains");
+
+    /**
+     * The keywords followed by a property or definition name in the evaluation path
+     */
+    private static final Set<String> NAMED_KEYWORDS = Set.of("properties", "patternProperties",
+            "dependentSchemas", "dependencies", "$defs", "definitions");
+
+    /**
+     * The walk configs and properties, per schema that is validated
+     */
+    private final ConcurrentHashMap<Schema, SchemaDefaults> schemas = new ConcurrentHashMap<>();
+
+    /**
+     * The longest number that is coerced
+     */
+    private final int maxNumberLength;
+
+    /**
+     * Creates a new instance of the ValidateJsonSchemaDefaults class
+     *
+     * @param maxNumberLength the longest number that is coerced
+     */
+    ValidateJsonSchemaDefaults(int maxNumberLength) {
+        this.maxNumberLength = maxNumberLength;
+    }
+
+    /**
+     * Gets the walk config that updates the body
+     *
+     * @param schema        the schema the body is validated against
+     * @param applyDefaults whether missing properties are set to their default
+     * @param coerceTypes   whether strings are converted to the type of their property
+     * @return the walk config, null if neither is enabled
+     */
+    WalkConfig getWalkConfig(Schema schema, boolean applyDefaults, boolean coerceTypes) {
+        if (!applyDefaults && !coerceTypes) {
+            return null;
+        }
+
+        SchemaDefaults schemaDefaults = this.schemas.computeIfAbsent(schema,
+                s -> new SchemaDefaults());
+        if (applyDefaults && coerceTypes) {
+            return schemaDefaults.defaultsAndCoerce;
+        } else if (applyDefaults) {
+            return schemaDefaults.defaults;
+        }
+
+        return schemaDefaults.coerce;
+    }
+
+    /**
+     * Forgets the properties of a schema, used once the schema is evicted
+     *
+     * @param schema the schema the body was validated against
+     */
+    void remove(Schema schema) {
+        this.schemas.remove(schema);
+    }
+
+    private WalkConfig walkConfig(Map<Schema, List<Property>> properties, boolean applyDefaults,
+            boolean coerceTypes) {
+        WalkListener listener = new WalkListener() {
+            @Override
+            public WalkFlow onWalkStart(WalkEvent walkEvent) {
+                if (walkEvent.getInstanceNode() instanceof ObjectNode object
+                        && !isConditional(walkEvent.getEvaluationPath())) {
+                    update(properties, walkEvent.getSchema(), object, applyDefaults,
+                            coerceTypes);
+                }
+
+                return WalkFlow.CONTINUE;
+            }
+
+            @Override
+            public void onWalkEnd(WalkEvent walkEvent, List<Error> errors) {
+            }
+        };
+
+        KeywordWalkHandler.Builder builder = KeywordWalkHandler.builder();
+        for (String keyword : KEYWORDS) {
+            builder.keywordWalkListener(keyword, listener);
+        }
+
+        return WalkConfig.builder().keywordWalkHandler(builder.build()).build();
+    }
+
+    private static boolean isConditional(NodePath evaluationPath) {
+        for (int i = 0; i < evaluationPath.getNameCount(); i++) {
+            String name = evaluationPath.getName(i);
+            if (NAMED_KEYWORDS.contains(name)) {
+                // The name that follows is not a keyword
+                i++;
+            } else if (CONDITIONAL_KEYWORDS.contains(name)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void update(Map<Schema, List<Property>> properties, Schema schema, ObjectNode object,
+            boolean applyDefaults, boolean coerceTypes) {
+        for (Property property : properties.computeIfAbsent(schema,
+                ValidateJsonSchemaDefaults::properties)) {
+            JsonNode value = object.get(property.name);
+            if (value == null) {
+                if (applyDefaults && property.defaultValue != null) {
+                    object.set(property.name, property.defaultValue.deepCopy());
+                }
+            } else if (coerceTypes && value.isString() && property.types != null) {
+                JsonNode coerced = coerce(object, value.asString(), property.types);
+                if (coerced != null) {
+                    object.set(property.name, coerced);
+                }
+            }
+        }
+    }
+
+    private static List<Property> properties(Schema schema) {
+        List<Property> properties = new ArrayList<>();
+        for (KeywordValidator validator : schema.getValidators()) {
+            if (!(validator instanceof PropertiesValidator propertiesValidator)) {
+                continue;
+            }
+
+            for (Map.Entry<String, Schema> entry : propertiesValidator.getSchemas().entrySet()) {
+                JsonNode schemaNode = entry.getValue().getSchemaNode();
+                JsonNode defaultValue = schemaNode.get("default");
+                JsonNode types = coercibleTypes(schemaNode.get("type"));
+                if (defaultValue != null || types != null) {
+                    properties.add(new Property(entry.getKey(), defaultValue, types));
+                }
+            }
+        }
+
+        return properties.isEmpty() ? List.of() : properties;
+    }
+
+    private static JsonNode coercibleTypes(JsonNode type) {
+        // A string is already valid when the property allows strings
+        if (type == null || hasType(type, "string")) {
+            return null;
+        }
+
+        return hasType(type, "integer") || hasType(type, "number") || hasType(type, "boolean")
+                ? type
+                : null;
+    }
+
+    private static boolean hasType(JsonNode type, String name) {
+        if (type.isArray()) {
+            for (JsonNode element : type) {
+                if (name.equals(element.asString(null))) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        return name.equals(type.asString(null));
+    }
+
+    /**
+     * Converts a string when it is exactly the JSON representation of a value of the types
+     *
+     * @param object the object, used to create the node
+     * @param value  the string
+     * @param types  the type keyword of the property
+     * @return the converted value, null if the string does not convert
+     */
+    private JsonNode coerce(ObjectNode object, String value, JsonNode types) {
+        if (hasType(types, "boolean") && ("true".equals(value) || "false".equals(value))) {
+            return object.booleanNode(Boolean.parseBoolean(value));
+        } else if (value.length() > this.maxNumberLength) {
+            // Longer numbers would be rejected by the parser
+            return null;
+        }
+
+        if ((hasType(types, "integer") || hasType(types, "number"))
+                && INTEGER.matcher(value).matches()) {
+            // The smallest node that holds the value, as the parser would create
+            BigInteger integer = new BigInteger(value);
+            if (integer.bitLength() < Integer.SIZE) {
+                return object.numberNode(integer.intValue());
+            } else if (integer.bitLength() < Long.SIZE) {
+                return object.numberNode(integer.longValue());
+            }
+
+            return object.numberNode(integer);
+        } else if (hasType(types, "number") && NUMBER.matcher(value).matches()) {
+            try {
+                BigDecimal number = new BigDecimal(value);
+                return Math.abs((long) number.scale()) <= MAX_SCALE
+                        ? object.numberNode(number)
+                        : null;
+            } catch (NumberFormatException e) {
+                // The exponent does not fit in the scale of a decimal
+                return null;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * The walk configs of a schema and the properties of its subschemas
+     */
+    private class SchemaDefaults {
+
+        private final Map<Schema, List<Property>> properties = new ConcurrentHashMap<>();
+
+        private final WalkConfig defaults = walkConfig(this.properties, true, false);
+
+        private final WalkConfig coerce = walkConfig(this.properties, false, true);
+
+        private final WalkConfig defaultsAndCoerce = walkConfig(this.properties, true, true);
+    }
+
+    /**
+     * A property with a default or a type that strings can be converted to
+     */
+    private static class Property {
+
+        private final String name;
+
+        private final JsonNode defaultValue;
+
+        private final JsonNode types;
+
+        Property(String name, JsonNode defaultValue, JsonNode types) {
+            this.name = name;
+            this.defaultValue = defaultValue;
+            this.types = types;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import java.util.concurrent.ConcurrentHashMap;
+import com.networknt.schema.SchemaRegistry;
+import com.networknt.schema.dialect.Dialect;
+import com.networknt.schema.dialect.DialectRegistry;
+import com.networknt.schema.keyword.Keyword;
+import lombok.NonNull;
+
+/**
+ * The DialectRegistry that replaces the oneOf and anyOf keywords of each dialect with
+ * {@link ValidateJsonSchemaDiscriminatorKeyword}.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+class ValidateJsonSchemaDialectRegistry implements DialectRegistry {
+
+    /**
+     * The dialects with the replaced keywords, keyed by dialect id
+     */
+    private final ConcurrentHashMap<String, Dialect> dialects;
+
+    /**
+     * The registry providing the original dialects
+     */
+    private final DialectRegistry delegate;
+
+    /**
+     * The default discriminating property name
+     */
+    private final String discriminatorPropertyName;
+
+    /**
+     * Creates a new instance of the ValidateJsonSchemaDialectRegistry class
+     *
+     * @param delegate                  the registry providing the original dialects
+     * @param discriminatorPropertyName the default discriminating property name, may be null
+     */
+    ValidateJsonSchemaDialectRegistry(@NonNull DialectRegistry delegate,
+            String discriminatorPropertyName) {
+        this.dialects = new ConcurrentHashMap<>();
+        this.delegate = delegate;
+        this.discriminatorPropertyName = discriminatorPropertyName;
+    }
+
+    @Override
+    public Dialect getDialect(String dialectId, SchemaRegistry schemaRegistry) {
+        Dialect dialect = this.dialects.get(dialectId);
+        if (dialect != null) {
+            return dialect;
+        }
+
+        // Loading a dialect may load other dialects so this is not done within the map
+        dialect = customize(this.delegate.getDialect(dialectId, schemaRegistry));
+        Dialect existing = this.dialects.putIfAbsent(dialectId, dialect);
+        return existing != null ? existing : dialect;
+    }
+
+    private Dialect customize(Dialect dialect) {
+        Dialect.Builder builder = Dialect.builder(dialect);
+        for (String keyword : new String[] { "oneOf", "anyOf" }) {
+            Keyword original = dialect.getKeywords().get(keyword);
+            if (original != null) {
+                builder.keyword(new ValidateJsonSchemaDiscriminatorKeyword(original,
+                        this.discriminatorPropertyName));
+            }
+        }
+
+        return builder.build();
+    }
+}
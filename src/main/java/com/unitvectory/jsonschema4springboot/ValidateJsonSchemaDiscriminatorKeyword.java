@@ -0,0 +1,163 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import com.networknt.schema.Schema;
+import com.networknt.schema.SchemaContext;
+import com.networknt.schema.SchemaLocation;
+import com.networknt.schema.keyword.Keyword;
+import com.networknt.schema.keyword.KeywordValidator;
+import lombok.NonNull;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * The oneOf or anyOf keyword that dispatches to a single branch by the value of a discriminating
+ * property instead of evaluating every branch.
+ *
+ * The discriminating property is read from an OpenAPI style discriminator keyword adjacent to the
+ * oneOf or anyOf, falling back to the configured property name. A value selects a branch either
+ * through the discriminator mapping to the branch $ref or through the branch declaring the
+ * property as a const or enum. Dispatching is only used when every branch declares the property
+ * as a const or enum, directly or through a local JSON Pointer $ref, so that the branch a value
+ * selects is the only branch it can match. When the branch cannot be determined the original
+ * keyword is used.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+class ValidateJsonSchemaDiscriminatorKeyword implements Keyword {
+
+    /**
+     * The original oneOf or anyOf keyword
+     */
+    private final Keyword delegate;
+
+    /**
+     * The discriminating property name used when no discriminator keyword is present
+     */
+    private final String propertyName;
+
+    /**
+     * Creates a new instance of the ValidateJsonSchemaDiscriminatorKeyword class
+     *
+     * @param delegate     the original oneOf or anyOf keyword
+     * @param propertyName the default discriminating property name, may be null
+     */
+    ValidateJsonSchemaDiscriminatorKeyword(@NonNull Keyword delegate, String propertyName) {
+        this.delegate = delegate;
+        this.propertyName = propertyName;
+    }
+
+    @Override
+    public String getValue() {
+        return this.delegate.getValue();
+    }
+
+    @Override
+    public KeywordValidator newValidator(SchemaLocation schemaLocation, JsonNode schemaNode,
+            Schema parentSchema, SchemaContext schemaContext) throws Exception {
+        KeywordValidator validator = this.delegate.newValidator(schemaLocation, schemaNode,
+                parentSchema, schemaContext);
+
+        String discriminatorProperty = discriminatorProperty(parentSchema.getSchemaNode());
+        if (discriminatorProperty == null || !schemaNode.isArray()) {
+            return validator;
+        }
+
+        Map<String, Integer> branches = mapBranches(discriminatorProperty, schemaNode,
+                parentSchema);
+        if (branches.isEmpty()) {
+            // Nothing to dispatch on, the original keyword has no added overhead
+            return validator;
+        }
+
+        return new ValidateJsonSchemaDiscriminatorValidator(this, schemaNode, schemaLocation,
+                parentSchema, schemaContext, validator, discriminatorProperty, branches);
+    }
+
+    private String discriminatorProperty(JsonNode parentSchemaNode) {
+        JsonNode discriminator = parentSchemaNode.get("discriminator");
+        if (discriminator != null && discriminator.path("propertyName").isString()) {
+            return discriminator.get("propertyName").asString();
+        }
+
+        return this.propertyName;
+    }
+
+    private static Map<String, Integer> mapBranches(String discriminatorProperty,
+            JsonNode schemaNode, Schema parentSchema) {
+        Map<String, Integer> branches = new HashMap<>();
+        Set<String> ambiguous = new HashSet<>();
+
+        // The explicit mapping from value to the $ref of the branch
+        Map<String, String> mapping = new HashMap<>();
+        JsonNode mappingNode = parentSchema.getSchemaNode().path("discriminator").path("mapping");
+        for (Map.Entry<String, JsonNode> entry : mappingNode.properties()) {
+            if (entry.getValue().isString()) {
+                mapping.put(entry.getValue().asString(), entry.getKey());
+            }
+        }
+
+        JsonNode root = parentSchema.findSchemaResourceRoot().getSchemaNode();
+        for (int i = 0; i < schemaNode.size(); i++) {
+            JsonNode branch = schemaNode.get(i);
+            boolean keyed = false;
+            String ref = branch.path("$ref").isString() ? branch.get("$ref").asString() : null;
+            if (ref != null && mapping.containsKey(ref)) {
+                addBranch(branches, ambiguous, mapping.get(ref), i);
+            }
+
+            // Local JSON Pointer references are resolved so their const or enum can be read,
+            // other references such as anchors leave the branch unkeyed
+            if (ref != null && (ref.equals("#") || ref.startsWith("#/"))) {
+                branch = root.at(ref.substring(1));
+            }
+
+            JsonNode property = branch.path("properties").path(discriminatorProperty);
+            if (property.path("const").isString()) {
+                addBranch(branches, ambiguous, property.get("const").asString(), i);
+                keyed = true;
+            } else if (property.path("enum").isArray()) {
+                for (JsonNode value : property.get("enum")) {
+                    if (value.isString()) {
+                        addBranch(branches, ambiguous, value.asString(), i);
+                        keyed = true;
+                    }
+                }
+            }
+
+            // A payload only an unkeyed branch matches would be dispatched to another branch, so
+            // dispatching is only equivalent to the original keyword when every branch is keyed.
+            // A mapping alone does not key a branch as the branch may still match other values.
+            if (!keyed) {
+                return Map.of();
+            }
+        }
+
+        // Values claimed by more than one branch cannot be dispatched on
+        branches.keySet().removeAll(ambiguous);
+        return branches;
+    }
+
+    private static void addBranch(Map<String, Integer> branches, Set<String> ambiguous,
+            String value, int index) {
+        Integer existing = branches.putIfAbsent(value, index);
+        if (existing != null && existing != index) {
+            ambiguous.add(value);
+        }
+    }
+}
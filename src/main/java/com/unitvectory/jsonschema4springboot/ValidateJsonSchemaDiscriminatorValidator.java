@@ -0,0 +1,126 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import com.networknt.schema.ExecutionContext;
+import com.networknt.schema.Schema;
+import com.networknt.schema.SchemaContext;
+import com.networknt.schema.SchemaLocation;
+import com.networknt.schema.keyword.BaseKeywordValidator;
+import com.networknt.schema.keyword.Keyword;
+import com.networknt.schema.keyword.KeywordValidator;
+import com.networknt.schema.path.NodePath;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * The validator for {@link ValidateJsonSchemaDiscriminatorKeyword} that validates only the branch
+ * selected by the discriminating property.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+class ValidateJsonSchemaDiscriminatorValidator extends BaseKeywordValidator {
+
+    /**
+     * The original validator, used when no branch is selected
+     */
+    private final KeywordValidator delegate;
+
+    /**
+     * The discriminating property name
+     */
+    private final String propertyName;
+
+    /**
+     * The branch index for each discriminating value
+     */
+    private final Map<String, Integer> branches;
+
+    /**
+     * The branch schemas
+     */
+    private final List<Schema> schemas;
+
+    /**
+     * Creates a new instance of the ValidateJsonSchemaDiscriminatorValidator class
+     *
+     * @param keyword        the keyword
+     * @param schemaNode     the oneOf or anyOf schema node
+     * @param schemaLocation the schema location
+     * @param parentSchema   the parent schema
+     * @param schemaContext  the schema context
+     * @param delegate       the original validator
+     * @param propertyName   the discriminating property name
+     * @param branches       the branch index for each discriminating value
+     */
+    ValidateJsonSchemaDiscriminatorValidator(Keyword keyword, JsonNode schemaNode,
+            SchemaLocation schemaLocation, Schema parentSchema, SchemaContext schemaContext,
+            KeywordValidator delegate, String propertyName, Map<String, Integer> branches) {
+        super(keyword, schemaNode, schemaLocation, parentSchema, schemaContext);
+        this.delegate = delegate;
+        this.propertyName = propertyName;
+        this.branches = branches;
+        this.schemas = new ArrayList<>(schemaNode.size());
+        for (int i = 0; i < schemaNode.size(); i++) {
+            this.schemas.add(schemaContext.newSchema(schemaLocation.append(i), schemaNode.get(i),
+                    parentSchema));
+        }
+    }
+
+    @Override
+    public void validate(ExecutionContext executionContext, JsonNode node, JsonNode rootNode,
+            NodePath instanceLocation) {
+        int index = selectBranch(node);
+        if (index < 0) {
+            this.delegate.validate(executionContext, node, rootNode, instanceLocation);
+            return;
+        }
+
+        executionContext.evaluationPathAddLast(index);
+        try {
+            this.schemas.get(index).validate(executionContext, node, rootNode, instanceLocation);
+        } finally {
+            executionContext.evaluationPathRemoveLast();
+        }
+    }
+
+    @Override
+    public void walk(ExecutionContext executionContext, JsonNode node, JsonNode rootNode,
+            NodePath instanceLocation, boolean shouldValidateSchema) {
+        this.delegate.walk(executionContext, node, rootNode, instanceLocation,
+                shouldValidateSchema);
+    }
+
+    @Override
+    public void preloadSchema() {
+        this.delegate.preloadSchema();
+        preloadSchemas(this.schemas);
+    }
+
+    private int selectBranch(JsonNode node) {
+        if (node == null || !node.isObject()) {
+            return -1;
+        }
+
+        JsonNode value = node.get(this.propertyName);
+        if (value == null || !value.isString()) {
+            return -1;
+        }
+
+        Integer index = this.branches.get(value.asString());
+        return index == null ? -1 : index;
+    }
+}
@@ -53,4 +53,9 @@ public class ValidateJsonSchemaException extends RuntimeException {
 
         this.validationResult = List.of(Error.builder().message(message).build());
     }
+
+    ValidateJsonSchemaException(@NonNull String message, @NonNull Throwable cause) {
+        super("JSON payload invalid and could not be parsed", cause);
+        this.validationResult = List.of(Error.builder().message(message).build());
+    }
 }
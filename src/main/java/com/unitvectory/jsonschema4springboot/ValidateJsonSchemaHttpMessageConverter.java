@@ -0,0 +1,154 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.SmartHttpMessageConverter;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+
+/**
+ * The message converter that reads the {@code @RequestBody} parameters annotated with
+ * {@link ValidateJsonSchema} with the object mapper of a
+ * {@link ValidateJsonSchemaArgumentResolver}. The body is validated against the resolver's
+ * compiled schemas between parsing and binding, so it is only parsed once.
+ * <p>
+ * The annotation is read from the method parameter the body is resolved for, other parameters are
+ * left to the other converters. This converter only reads, the response is written by the other
+ * converters. The {@link ValidateJsonSchemaRequestBodyAdvice} rejects annotated parameters that
+ * would be read by another converter.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+public class ValidateJsonSchemaHttpMessageConverter implements SmartHttpMessageConverter<Object> {
+
+    /**
+     * The resolver holding the compiled schemas
+     */
+    private final ValidateJsonSchemaArgumentResolver resolver;
+
+    /**
+     * The media types that are read
+     */
+    private final List<MediaType> supportedMediaTypes;
+
+    /**
+     * Creates a new instance of the ValidateJsonSchemaHttpMessageConverter class
+     *
+     * @param resolver the resolver holding the compiled schemas
+     */
+    public ValidateJsonSchemaHttpMessageConverter(
+            @NonNull ValidateJsonSchemaArgumentResolver resolver) {
+        this.resolver = resolver;
+
+        List<MediaType> mediaTypes = new ArrayList<>();
+        mediaTypes.add(MediaType.APPLICATION_JSON);
+        mediaTypes.add(new MediaType("application", "*+json"));
+        for (String contentType : resolver.getContentTypes()) {
+            mediaTypes.add(MediaType.parseMediaType(contentType));
+        }
+
+        this.supportedMediaTypes = Collections.unmodifiableList(mediaTypes);
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes() {
+        return this.supportedMediaTypes;
+    }
+
+    @Override
+    public boolean canRead(ResolvableType type, MediaType mediaType) {
+        if (validateJsonSchema(type) == null) {
+            return false;
+        } else if (mediaType == null) {
+            return true;
+        }
+
+        for (MediaType supportedMediaType : this.supportedMediaTypes) {
+            if (supportedMediaType.includes(mediaType)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(ResolvableType targetType, Class<?> valueClass, MediaType mediaType) {
+        return false;
+    }
+
+    @SuppressWarnings("null")
+    @Override
+    public Object read(ResolvableType type, HttpInputMessage inputMessage,
+            Map<String, Object> hints) throws IOException {
+        // Without the annotation of the parameter the body must not be bound unvalidated
+        ValidateJsonSchema validateJsonSchema = validateJsonSchema(type);
+        if (validateJsonSchema == null) {
+            throw new HttpMessageNotReadableException(
+                    "Only parameters annotated with ValidateJsonSchema can be read", inputMessage);
+        }
+
+        // The timing is published to the current request, if any, as the argument resolver does
+        HttpServletRequest request = null;
+        HttpServletResponse response = null;
+        if (RequestContextHolder
+                .getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            request = attributes.getRequest();
+            response = attributes.getResponse();
+        }
+
+        HttpHeaders headers = inputMessage.getHeaders();
+        MediaType contentType = headers.getContentType();
+        return this.resolver.readValue(validateJsonSchema,
+                this.resolver.getObjectMapper().constructType(type.getType()),
+                inputMessage.getBody(), contentType != null ? contentType.toString() : null,
+                headers.getFirst(HttpHeaders.CONTENT_ENCODING), request, response);
+    }
+
+    @Override
+    public void write(Object value, ResolvableType type, MediaType contentType,
+            HttpOutputMessage outputMessage, Map<String, Object> hints) {
+        throw new HttpMessageNotWritableException("Writing is not supported");
+    }
+
+    /**
+     * Gets the annotation of the parameter the body is read for
+     *
+     * @param type the type of the body
+     * @return the annotation, null if the type is not of an annotated parameter
+     */
+    private static ValidateJsonSchema validateJsonSchema(ResolvableType type) {
+        if (type != null && type.getSource() instanceof MethodParameter parameter) {
+            return parameter.getParameterAnnotation(ValidateJsonSchema.class);
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import java.util.ArrayList;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.IntNode;
+import tools.jackson.databind.node.JsonNodeFactory;
+import tools.jackson.databind.node.NumericNode;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Creates the nodes of request bodies with a smaller footprint, see
+ * {@link ValidateJsonSchemaConfig#isCompactNodesEnabled()}. Objects keep their properties in
+ * {@link ValidateJsonSchemaCompactMap}, arrays start with room for a few elements and the nodes of
+ * small integers are shared.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+class ValidateJsonSchemaNodeFactory extends JsonNodeFactory {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The shared instance
+     */
+    static final ValidateJsonSchemaNodeFactory INSTANCE = new ValidateJsonSchemaNodeFactory();
+
+    /**
+     * The smallest integer with a shared node
+     */
+    static final int MIN_SHARED_INT = -128;
+
+    /**
+     * The largest integer with a shared node
+     */
+    static final int MAX_SHARED_INT = 1023;
+
+    private static final int INITIAL_ARRAY_SIZE = 4;
+
+    private static final IntNode[] SHARED_INTS = new IntNode[MAX_SHARED_INT - MIN_SHARED_INT + 1];
+
+    static {
+        for (int i = 0; i < SHARED_INTS.length; i++) {
+            SHARED_INTS[i] = IntNode.valueOf(MIN_SHARED_INT + i);
+        }
+    }
+
+    @Override
+    public ObjectNode objectNode() {
+        return new ObjectNode(this, new ValidateJsonSchemaCompactMap());
+    }
+
+    @Override
+    public ArrayNode arrayNode() {
+        return new ArrayNode(this, new ArrayList<>(INITIAL_ARRAY_SIZE));
+    }
+
+    @Override
+    public NumericNode numberNode(int v) {
+        if (v >= MIN_SHARED_INT && v <= MAX_SHARED_INT) {
+            return SHARED_INTS[v - MIN_SHARED_INT];
+        }
+
+        return super.numberNode(v);
+    }
+}
@@ -0,0 +1,539 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import com.networknt.schema.Error;
+import com.networknt.schema.ExecutionContext;
+import com.networknt.schema.Result;
+import com.networknt.schema.Schema;
+import com.networknt.schema.path.NodePath;
+import com.networknt.schema.path.PathType;
+import com.networknt.schema.regex.RegularExpressionFactory;
+import lombok.NonNull;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Validates JSON Merge Patch (RFC 7396) and JSON Patch (RFC 6902) documents against the schema of
+ * the resource being patched.
+ *
+ * Only the sub-schemas for the locations touched by the patch are resolved and validated. Values
+ * that replace a location are validated against its sub-schema, removals are rejected for required
+ * properties and properties disallowed by additionalProperties are rejected. A merge patch object
+ * for a location that cannot be an object is validated as the value that replaces it. JSON Patch
+ * move and copy are only accepted when the from location has the same sub-schema as the path, as
+ * the value is not part of the patch. Sub-schemas are located through properties,
+ * patternProperties, additionalProperties, items, prefixItems and local $ref; constraints
+ * expressed through other keywords such as allOf are not applied to the partial document.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+class ValidateJsonSchemaPatchValidator {
+
+    /**
+     * The JSON Merge Patch content type
+     */
+    static final String MERGE_PATCH_CONTENT_TYPE = "application/merge-patch+json";
+
+    /**
+     * The JSON Patch content type
+     */
+    static final String JSON_PATCH_CONTENT_TYPE = "application/json-patch+json";
+
+    /**
+     * The maximum number of $ref hops followed when locating a sub-schema
+     */
+    private static final int MAX_REF_DEPTH = 32;
+
+    /**
+     * The location of a schema which does not allow the property
+     */
+    private static final SchemaPointer NOT_ALLOWED = new SchemaPointer(null, null);
+
+    /**
+     * The schema of the resource
+     */
+    private final Schema schema;
+
+    /**
+     * The path type used for the instance location of errors
+     */
+    private final PathType pathType;
+
+    /**
+     * The factory for the patternProperties regular expressions
+     */
+    private final RegularExpressionFactory regularExpressionFactory;
+
+    /**
+     * The sub-schemas that have been loaded, keyed by their location
+     */
+    private final ConcurrentHashMap<List<Object>, Schema> subSchemas;
+
+    /**
+     * Creates a new instance of the ValidateJsonSchemaPatchValidator class
+     *
+     * @param schema                   the schema of the resource
+     * @param pathType                 the path type used for errors
+     * @param regularExpressionFactory the regular expression factory
+     */
+    ValidateJsonSchemaPatchValidator(@NonNull Schema schema, @NonNull PathType pathType,
+            @NonNull RegularExpressionFactory regularExpressionFactory) {
+        this.schema = schema;
+        this.pathType = pathType;
+        this.regularExpressionFactory = regularExpressionFactory;
+        this.subSchemas = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Checks if the content type is a JSON Patch
+     *
+     * @param contentType the content type, may be null
+     * @return true if JSON Patch; false otherwise
+     */
+    static boolean isJsonPatch(String contentType) {
+        return contentType != null
+                && contentType.toLowerCase(Locale.ROOT).startsWith(JSON_PATCH_CONTENT_TYPE);
+    }
+
+    /**
+     * Validates a JSON Merge Patch document
+     *
+     * @param patch    the merge patch
+     * @param deadline the validation deadline, may be null
+     * @return the validation errors
+     */
+    List<Error> validateMergePatch(JsonNode patch, ValidateJsonSchemaDeadline deadline) {
+        List<Error> errors = new ArrayList<>();
+        mergePatch(root(), patch, new NodePath(this.pathType), deadline, errors);
+        return errors;
+    }
+
+    /**
+     * Validates a JSON Patch document
+     *
+     * @param patch    the JSON Patch
+     * @param deadline the validation deadline, may be null
+     * @return the validation errors
+     */
+    List<Error> validateJsonPatch(JsonNode patch, ValidateJsonSchemaDeadline deadline) {
+        List<Error> errors = new ArrayList<>();
+        if (!patch.isArray()) {
+            errors.add(error("JSON Patch must be an array of operations",
+                    new NodePath(this.pathType)));
+            return errors;
+        }
+
+        for (int i = 0; i < patch.size(); i++) {
+            if (deadline != null) {
+                deadline.evaluated();
+            }
+
+            jsonPatchOperation(i, patch.get(i), deadline, errors);
+        }
+
+        return errors;
+    }
+
+    private void mergePatch(SchemaPointer pointer, JsonNode patch, NodePath instanceLocation,
+            ValidateJsonSchemaDeadline deadline, List<Error> errors) {
+        if (pointer == null) {
+            // No schema applies to this location
+            return;
+        } else if (!patch.isObject()) {
+            // Anything other than an object replaces the target
+            validate(pointer, patch, instanceLocation, deadline, errors);
+            return;
+        }
+
+        SchemaPointer target = resolve(pointer);
+        if (!allowsObject(target)) {
+            // The target cannot be an object, so the patch is merged into an empty object and
+            // the result replaces the target
+            validate(pointer, withoutNulls(patch), instanceLocation, deadline, errors);
+            return;
+        }
+
+        for (Map.Entry<String, JsonNode> entry : patch.properties()) {
+            String name = entry.getKey();
+            JsonNode value = entry.getValue();
+            if (deadline != null) {
+                deadline.evaluated();
+            }
+
+            NodePath childLocation = instanceLocation.append(name);
+            SchemaPointer child = property(target, name);
+            if (value.isNull()) {
+                if (isRequired(target, name)) {
+                    errors.add(error("required property '" + name + "' cannot be removed",
+                            instanceLocation));
+                }
+            } else if (child == NOT_ALLOWED) {
+                errors.add(notAllowed(name, instanceLocation));
+            } else {
+                mergePatch(child, value, childLocation, deadline, errors);
+            }
+        }
+    }
+
+    private void jsonPatchOperation(int index, JsonNode operation,
+            ValidateJsonSchemaDeadline deadline, List<Error> errors) {
+        NodePath operationLocation = new NodePath(this.pathType).append(index);
+        String op = operation.path("op").isString() ? operation.get("op").asString() : null;
+        List<String> path = parsePointer(operation.path("path"));
+        if (op == null || path == null) {
+            errors.add(error("JSON Patch operation must have an op and a valid path",
+                    operationLocation));
+            return;
+        }
+
+        switch (op) {
+            case "add":
+            case "replace":
+            case "test":
+                JsonNode value = operation.get("value");
+                if (value == null) {
+                    errors.add(error("JSON Patch " + op + " operation must have a value",
+                            operationLocation));
+                } else {
+                    replaceValue(path, value, deadline, errors);
+                }
+                break;
+            case "remove":
+                removeValue(path, errors);
+                break;
+            case "move":
+            case "copy":
+                List<String> from = parsePointer(operation.path("from"));
+                if (from == null) {
+                    errors.add(error("JSON Patch " + op + " operation must have a valid from",
+                            operationLocation));
+                    break;
+                }
+
+                if ("move".equals(op)) {
+                    removeValue(from, errors);
+                }
+
+                copyValue(op, operation.get("from").asString(), from, path, errors);
+                break;
+            default:
+                errors.add(error("JSON Patch operation '" + op + "' is not supported",
+                        operationLocation));
+        }
+    }
+
+    private void replaceValue(List<String> path, JsonNode value,
+            ValidateJsonSchemaDeadline deadline, List<Error> errors) {
+        SchemaPointer target = locateTarget(path, errors);
+        if (target != null && target != NOT_ALLOWED) {
+            validate(target, value, instanceLocation(path), deadline, errors);
+        }
+    }
+
+    private void copyValue(String op, String fromPointer, List<String> from, List<String> path,
+            List<Error> errors) {
+        SchemaPointer target = locateTarget(path, errors);
+        if (target == null || target == NOT_ALLOWED) {
+            return;
+        }
+
+        // The value is not part of the patch, so it is only known to be valid when it comes from
+        // a location with the same schema
+        SchemaPointer source = locate(from);
+        if (source == null || source == NOT_ALLOWED
+                || !resolve(source).node.equals(resolve(target).node)) {
+            errors.add(error("JSON Patch " + op + " from '" + fromPointer
+                    + "' cannot be validated against the schema of the path",
+                    instanceLocation(path)));
+        }
+    }
+
+    private void removeValue(List<String> path, List<Error> errors) {
+        if (path.isEmpty()) {
+            errors.add(error("the document cannot be removed", new NodePath(this.pathType)));
+            return;
+        }
+
+        SchemaPointer parent = locate(path.subList(0, path.size() - 1));
+        String name = path.get(path.size() - 1);
+        if (parent != null && parent != NOT_ALLOWED && isRequired(resolve(parent), name)) {
+            errors.add(error("required property '" + name + "' cannot be removed",
+                    instanceLocation(path.subList(0, path.size() - 1))));
+        }
+    }
+
+    private SchemaPointer locateTarget(List<String> path, List<Error> errors) {
+        SchemaPointer target = locate(path);
+        if (target == NOT_ALLOWED) {
+            errors.add(notAllowed(path.get(path.size() - 1),
+                    instanceLocation(path.subList(0, path.size() - 1))));
+        }
+
+        return target;
+    }
+
+    private SchemaPointer locate(List<String> path) {
+        SchemaPointer pointer = root();
+        for (String segment : path) {
+            if (pointer == null || pointer == NOT_ALLOWED) {
+                return pointer;
+            }
+
+            pointer = child(resolve(pointer), segment);
+        }
+
+        return pointer;
+    }
+
+    private SchemaPointer root() {
+        return new SchemaPointer(Collections.emptyList(), this.schema.getSchemaNode());
+    }
+
+    private SchemaPointer child(SchemaPointer pointer, String segment) {
+        JsonNode node = pointer.node;
+        boolean isIndex = "-".equals(segment) || segment.matches("0|[1-9][0-9]*");
+        if (isIndex && (node.has("items") || node.has("prefixItems"))) {
+            return item(pointer, segment);
+        }
+
+        return property(pointer, segment);
+    }
+
+    private SchemaPointer property(SchemaPointer pointer, String name) {
+        JsonNode node = pointer.node;
+        JsonNode properties = node.path("properties");
+        if (properties.has(name)) {
+            return pointer.append(properties.get(name), "properties", name);
+        }
+
+        for (Map.Entry<String, JsonNode> entry : node.path("patternProperties").properties()) {
+            if (this.regularExpressionFactory.getRegularExpression(entry.getKey()).matches(name)) {
+                return pointer.append(entry.getValue(), "patternProperties", entry.getKey());
+            }
+        }
+
+        JsonNode additionalProperties = node.path("additionalProperties");
+        if (additionalProperties.isObject()) {
+            return pointer.append(additionalProperties, "additionalProperties");
+        } else if (additionalProperties.isBoolean() && !additionalProperties.asBoolean()) {
+            return NOT_ALLOWED;
+        }
+
+        return null;
+    }
+
+    private SchemaPointer item(SchemaPointer pointer, String segment) {
+        JsonNode node = pointer.node;
+        int index = "-".equals(segment) ? Integer.MAX_VALUE : Integer.parseInt(segment);
+
+        // Tuple validation is prefixItems in 2020-12 and an items array in earlier drafts
+        String tupleKeyword = node.path("prefixItems").isArray() ? "prefixItems" : "items";
+        JsonNode tuple = node.path(tupleKeyword);
+        if (tuple.isArray()) {
+            if (index < tuple.size()) {
+                return pointer.append(tuple.get(index), tupleKeyword, index);
+            }
+
+            String restKeyword = "prefixItems".equals(tupleKeyword) ? "items" : "additionalItems";
+            JsonNode rest = node.path(restKeyword);
+            if (rest.isObject()) {
+                return pointer.append(rest, restKeyword);
+            } else if (rest.isBoolean() && !rest.asBoolean()) {
+                return NOT_ALLOWED;
+            }
+
+            return null;
+        }
+
+        JsonNode items = node.path("items");
+        return items.isObject() ? pointer.append(items, "items") : null;
+    }
+
+    private SchemaPointer resolve(SchemaPointer pointer) {
+        JsonNode root = this.schema.getSchemaNode();
+        SchemaPointer resolved = pointer;
+        for (int i = 0; i < MAX_REF_DEPTH; i++) {
+            JsonNode ref = resolved.node.path("$ref");
+            if (!ref.isString() || !ref.asString().startsWith("#")) {
+                break;
+            }
+
+            // Only JSON Pointer references are followed, anchors are left unresolved
+            List<String> refPath = parsePointer(ref.asString().substring(1));
+            if (refPath == null) {
+                break;
+            }
+
+            JsonNode target = root.at(ref.asString().substring(1));
+            if (target.isMissingNode()) {
+                break;
+            }
+
+            resolved = new SchemaPointer(new ArrayList<>(refPath), target);
+        }
+
+        return resolved;
+    }
+
+    private boolean isRequired(SchemaPointer pointer, String name) {
+        for (JsonNode required : pointer.node.path("required")) {
+            if (name.equals(required.asString())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean allowsObject(SchemaPointer pointer) {
+        JsonNode node = pointer.node;
+        JsonNode type = node.get("type");
+        if (type != null) {
+            if (type.isArray()) {
+                for (JsonNode element : type) {
+                    if ("object".equals(element.asString(null))) {
+                        return true;
+                    }
+                }
+
+                return false;
+            }
+
+            return "object".equals(type.asString(null));
+        } else if (node.has("const")) {
+            return node.get("const").isObject();
+        } else if (node.path("enum").isArray()) {
+            for (JsonNode value : node.get("enum")) {
+                if (value.isObject()) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        return true;
+    }
+
+    private static JsonNode withoutNulls(JsonNode patch) {
+        if (!patch.isObject()) {
+            return patch;
+        }
+
+        ObjectNode result = ((ObjectNode) patch).deepCopy();
+        List<String> names = new ArrayList<>(result.propertyNames());
+        for (String name : names) {
+            JsonNode value = result.get(name);
+            if (value.isNull()) {
+                result.remove(name);
+            } else {
+                result.set(name, withoutNulls(value));
+            }
+        }
+
+        return result;
+    }
+
+    private void validate(SchemaPointer pointer, JsonNode value, NodePath instanceLocation,
+            ValidateJsonSchemaDeadline deadline, List<Error> errors) {
+        Schema subSchema = pointer.path.isEmpty() ? this.schema
+                : this.subSchemas.computeIfAbsent(pointer.path, this::loadSubSchema);
+
+        // Walking with validation allows the errors to report the location within the resource
+        ExecutionContext executionContext = deadline != null
+                ? deadline.createExecutionContext(subSchema)
+                : subSchema.createExecutionContext();
+        Result result = subSchema.walkAtNode(executionContext, value, value, instanceLocation,
+                true);
+        errors.addAll(result.getErrors());
+    }
+
+    private Schema loadSubSchema(List<Object> path) {
+        NodePath fragment = new NodePath(PathType.JSON_POINTER);
+        for (Object element : path) {
+            fragment = element instanceof Integer ? fragment.append((Integer) element)
+                    : fragment.append((String) element);
+        }
+
+        return this.schema.getSubSchema(fragment);
+    }
+
+    private NodePath instanceLocation(List<String> path) {
+        NodePath nodePath = new NodePath(this.pathType);
+        for (String segment : path) {
+            nodePath = segment.matches("0|[1-9][0-9]*") ? nodePath.append(Integer.parseInt(segment))
+                    : nodePath.append(segment);
+        }
+
+        return nodePath;
+    }
+
+    private static List<String> parsePointer(JsonNode pointer) {
+        return pointer.isString() ? parsePointer(pointer.asString()) : null;
+    }
+
+    private static List<String> parsePointer(String pointer) {
+        List<String> segments = new ArrayList<>();
+        if (pointer.isEmpty()) {
+            return segments;
+        } else if (!pointer.startsWith("/")) {
+            return null;
+        }
+
+        for (String segment : pointer.substring(1).split("/", -1)) {
+            segments.add(segment.replace("~1", "/").replace("~0", "~"));
+        }
+
+        return segments;
+    }
+
+    private static Error notAllowed(String name, NodePath instanceLocation) {
+        return error("property '" + name
+                + "' is not defined in the schema and the schema does not allow additional properties",
+                instanceLocation);
+    }
+
+    private static Error error(String message, NodePath instanceLocation) {
+        return Error.builder().message(message).instanceLocation(instanceLocation).build();
+    }
+
+    /**
+     * A location within the schema document and the schema node at that location
+     */
+    private static final class SchemaPointer {
+
+        private final List<Object> path;
+
+        private final JsonNode node;
+
+        private SchemaPointer(List<Object> path, JsonNode node) {
+            this.path = path;
+            this.node = node;
+        }
+
+        private SchemaPointer append(JsonNode child, Object... elements) {
+            List<Object> childPath = new ArrayList<>(this.path.size() + elements.length);
+            childPath.addAll(this.path);
+            Collections.addAll(childPath, elements);
+            return new SchemaPointer(childPath, child);
+        }
+    }
+}
@@ -0,0 +1,391 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Writes a fraction of the request bodies to rotating JSON Lines files. Each line holds the
+ * attributes of the {@link ValidateJsonSchema} annotation, the content type and the body with the
+ * configured fields redacted. The schema path and version are always written, the other
+ * attributes only when they are not the default.
+ * <p>
+ * The request thread only serializes the sample and adds it to a bounded queue, a sample is
+ * dropped when the queue is full. The files are written and flushed by a single background thread.
+ * The directory and the files are created readable only by the owner where the file system
+ * supports POSIX permissions. Closing the sampler writes the queued samples, closes the file and
+ * stops the background thread.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+class ValidateJsonSchemaPayloadSampler implements AutoCloseable {
+
+    /**
+     * The name of the current sample file, rotated files are numbered before the extension
+     */
+    static final String FILE_NAME = "payloads.jsonl";
+
+    /**
+     * The value written in place of redacted fields
+     */
+    static final String REDACTED = "REDACTED";
+
+    /**
+     * The number of samples waiting to be written after which samples are dropped
+     */
+    static final int QUEUE_CAPACITY = 1024;
+
+    /**
+     * The attributes of the annotation, in the order they are written
+     */
+    static final List<Method> ATTRIBUTES = attributes();
+
+    /**
+     * Queued to stop the background thread once the samples before it are written, compared by
+     * identity
+     */
+    private static final byte[] STOP = new byte[0];
+
+    private final ObjectMapper objectMapper;
+
+    private final double rate;
+
+    private final Path directory;
+
+    private final Set<String> redactedFields;
+
+    private final long maxFileSize;
+
+    private final int maxFiles;
+
+    private final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+    /**
+     * The number of samples added to the queue
+     */
+    private final AtomicLong queued = new AtomicLong();
+
+    /**
+     * The number of samples taken from the queue and written or dropped, notified when it changes
+     */
+    private final AtomicLong written = new AtomicLong();
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private final Thread writer;
+
+    private OutputStream out;
+
+    private long size;
+
+    /**
+     * Creates a new instance of the ValidateJsonSchemaPayloadSampler class
+     *
+     * @param objectMapper the object mapper used to write the samples
+     * @param config       the config
+     */
+    ValidateJsonSchemaPayloadSampler(ObjectMapper objectMapper, ValidateJsonSchemaConfig config) {
+        this.objectMapper = objectMapper;
+        this.rate = config.getPayloadSampleRate();
+        this.directory = Objects.requireNonNull(config.getPayloadSampleDirectory(),
+                "The payload sample directory must be set when payload sampling is enabled");
+        this.redactedFields = Set.copyOf(config.getPayloadSampleRedactedFields());
+        this.maxFileSize = config.getPayloadSampleMaxFileSize();
+        this.maxFiles = Math.max(1, config.getPayloadSampleMaxFiles());
+
+        this.writer = new Thread(this::writeSamples, "jsonschema4springboot-payload-sampler");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Gets the path of a sample file
+     *
+     * @param directory the directory
+     * @param index     the index, 0 for the current file
+     * @return the path
+     */
+    static Path file(Path directory, int index) {
+        return directory.resolve(index == 0 ? FILE_NAME : "payloads." + index + ".jsonl");
+    }
+
+    /**
+     * Writes the body if selected by the sample rate
+     *
+     * @param validateJsonSchema the annotation
+     * @param contentType        the Content-Type header, may be null
+     * @param json               the body
+     */
+    void sample(ValidateJsonSchema validateJsonSchema, String contentType, JsonNode json) {
+        if (this.closed.get() || ThreadLocalRandom.current().nextDouble() >= this.rate) {
+            return;
+        }
+
+        ObjectNode entry = this.objectMapper.createObjectNode();
+        for (Method attribute : ATTRIBUTES) {
+            Object value = attribute(validateJsonSchema, attribute);
+            if (value != null && !value.equals(attribute.getDefaultValue())) {
+                entry.set(attribute.getName(), this.objectMapper.valueToTree(value));
+            }
+        }
+
+        if (contentType != null) {
+            entry.put("contentType", contentType);
+        }
+
+        entry.set("body", this.redactedFields.isEmpty() ? json : redact(json.deepCopy()));
+
+        try {
+            // Serialized now as the body is updated by the validation that follows
+            if (this.queue.offer(this.objectMapper.writeValueAsBytes(entry))) {
+                this.queued.incrementAndGet();
+            }
+        } catch (JacksonException e) {
+            // Sampling must never fail the request, the sample is dropped
+        }
+    }
+
+    /**
+     * Waits for the queued samples to be written
+     *
+     * @param timeoutMillis the maximum time to wait
+     * @return true if the samples were written; false if the time elapsed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    boolean flush(long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        long target = this.queued.get();
+        synchronized (this.written) {
+            while (this.written.get() < target) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return false;
+                }
+
+                this.written.wait(remaining);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Writes the queued samples, closes the file and stops the background thread. Samples taken
+     * afterwards are dropped.
+     */
+    @Override
+    public void close() {
+        if (!this.closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            // Waits for room in the queue rather than dropping the samples before it
+            this.queue.put(STOP);
+            this.writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Checks if the background thread is running
+     *
+     * @return true if running; false otherwise
+     */
+    boolean isRunning() {
+        return this.writer.isAlive();
+    }
+
+    private static List<Method> attributes() {
+        List<Method> attributes = new ArrayList<>(
+                Arrays.asList(ValidateJsonSchema.class.getDeclaredMethods()));
+
+        // The attributes without a default first, so every line starts with the schema
+        attributes.sort(Comparator.comparing((Method method) -> method.getDefaultValue() != null)
+                .thenComparing(Method::getName));
+        return List.copyOf(attributes);
+    }
+
+    private static Object attribute(ValidateJsonSchema validateJsonSchema, Method attribute) {
+        try {
+            return attribute.invoke(validateJsonSchema);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private JsonNode redact(JsonNode node) {
+        if (node instanceof ObjectNode object) {
+            for (Map.Entry<String, JsonNode> entry : object.properties()) {
+                if (this.redactedFields.contains(entry.getKey())) {
+                    entry.setValue(object.stringNode(REDACTED));
+                } else {
+                    redact(entry.getValue());
+                }
+            }
+        } else if (node instanceof ArrayNode array) {
+            for (JsonNode element : array) {
+                redact(element);
+            }
+        }
+
+        return node;
+    }
+
+    private void writeSamples() {
+        boolean stopped = false;
+        while (!stopped) {
+            byte[] line;
+            try {
+                line = this.queue.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+
+            // Everything queued meanwhile is written before the file is flushed
+            int count = 0;
+            try {
+                do {
+                    if (line == STOP) {
+                        stopped = true;
+                    } else {
+                        count++;
+                        write(line);
+                    }
+                } while ((line = this.queue.poll()) != null);
+
+                // Flushed so the samples can be read while the application is running
+                if (this.out != null) {
+                    this.out.flush();
+                }
+            } catch (IOException e) {
+                // The samples are dropped and the file is reopened on the next sample
+                closeFile();
+                while ((line = this.queue.poll()) != null) {
+                    if (line == STOP) {
+                        stopped = true;
+                    } else {
+                        count++;
+                    }
+                }
+            }
+
+            synchronized (this.written) {
+                this.written.addAndGet(count);
+                this.written.notifyAll();
+            }
+        }
+
+        closeFile();
+    }
+
+    private void write(byte[] line) throws IOException {
+        if (this.out == null) {
+            open();
+        }
+
+        if (this.size > 0 && this.size + line.length + 1 > this.maxFileSize) {
+            rotate();
+        }
+
+        this.out.write(line);
+        this.out.write('\n');
+        this.size += line.length + 1;
+    }
+
+    private void open() throws IOException {
+        boolean posix = this.directory.getFileSystem().supportedFileAttributeViews()
+                .contains("posix");
+        if (Files.notExists(this.directory)) {
+            Files.createDirectories(this.directory, ownerOnly(posix, "rwx------"));
+        }
+
+        Path file = file(this.directory, 0);
+        if (Files.notExists(file)) {
+            Files.createFile(file, ownerOnly(posix, "rw-------"));
+        }
+
+        this.size = Files.size(file);
+        this.out = new BufferedOutputStream(
+                Files.newOutputStream(file, StandardOpenOption.APPEND));
+    }
+
+    private static FileAttribute<?>[] ownerOnly(boolean posix, String permissions) {
+        if (!posix) {
+            return new FileAttribute<?>[0];
+        }
+
+        return new FileAttribute<?>[] { PosixFilePermissions
+                .asFileAttribute(PosixFilePermissions.fromString(permissions)) };
+    }
+
+    private void rotate() throws IOException {
+        closeFile();
+
+        // The oldest file is dropped and the others shift up by one
+        Files.deleteIfExists(file(this.directory, this.maxFiles - 1));
+        for (int i = this.maxFiles - 2; i >= 0; i--) {
+            Path file = file(this.directory, i);
+            if (Files.exists(file)) {
+                Files.move(file, file(this.directory, i + 1),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        open();
+    }
+
+    private void closeFile() {
+        if (this.out == null) {
+            return;
+        }
+
+        try {
+            this.out.close();
+        } catch (IOException e) {
+            // Reopened on the next sample
+        } finally {
+            this.out = null;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import lombok.NonNull;
+
+/**
+ * Analyzes regular expressions for catastrophic backtracking risk.
+ *
+ * This is a conservative heuristic that flags a group repeated by an unbounded quantifier that
+ * itself contains an unbounded quantifier, for example (a+)+ or (\w+\s?)*, which is the shape
+ * responsible for exponential matching time in backtracking engines.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+public final class ValidateJsonSchemaRegexAnalyzer {
+
+    private ValidateJsonSchemaRegexAnalyzer() {
+    }
+
+    /**
+     * Checks if the regular expression has nested unbounded quantifiers
+     *
+     * @param regex the regular expression
+     * @return true if the regular expression is at risk of catastrophic backtracking; false
+     *         otherwise
+     */
+    public static boolean hasBacktrackingRisk(@NonNull String regex) {
+        // Each entry tracks whether the open group contains an unbounded quantifier
+        Deque<boolean[]> groups = new ArrayDeque<>();
+        boolean[] current = new boolean[1];
+
+        int i = 0;
+        int length = regex.length();
+        while (i < length) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i = unboundedQuantifier(regex, i + 2, current);
+            } else if (c == '[') {
+                i = unboundedQuantifier(regex, skipCharacterClass(regex, i), current);
+            } else if (c == '(') {
+                groups.push(current);
+                current = new boolean[1];
+                i++;
+            } else if (c == ')') {
+                boolean groupUnbounded = current[0];
+                current = groups.isEmpty() ? new boolean[1] : groups.pop();
+
+                boolean[] quantified = new boolean[1];
+                i = unboundedQuantifier(regex, i + 1, quantified);
+                if (quantified[0] && groupUnbounded) {
+                    return true;
+                }
+
+                current[0] |= groupUnbounded || quantified[0];
+            } else {
+                i = unboundedQuantifier(regex, i + 1, current);
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Consumes a quantifier following an atom, marking the target if it is unbounded
+     *
+     * @param regex  the regular expression
+     * @param i      the index following the atom
+     * @param target the flag to set if the quantifier is unbounded
+     * @return the index following the quantifier
+     */
+    private static int unboundedQuantifier(String regex, int i, boolean[] target) {
+        if (i >= regex.length()) {
+            return i;
+        }
+
+        char c = regex.charAt(i);
+        if (c == '*' || c == '+') {
+            target[0] = true;
+            return skipQuantifierModifier(regex, i + 1);
+        } else if (c == '?') {
+            return skipQuantifierModifier(regex, i + 1);
+        } else if (c == '{') {
+            int close = regex.indexOf('}', i);
+            if (close < 0) {
+                return i + 1;
+            }
+
+            // {n,} is unbounded where {n} and {n,m} are not
+            String range = regex.substring(i + 1, close);
+            if (range.endsWith(",")) {
+                target[0] = true;
+            }
+
+            return skipQuantifierModifier(regex, close + 1);
+        }
+
+        return i;
+    }
+
+    private static int skipQuantifierModifier(String regex, int i) {
+        if (i < regex.length() && (regex.charAt(i) == '?' || regex.charAt(i) == '+')) {
+            return i + 1;
+        }
+
+        return i;
+    }
+
+    private static int skipCharacterClass(String regex, int i) {
+        // A ']' immediately after the opening bracket is a literal
+        int j = i + 1;
+        if (j < regex.length() && regex.charAt(j) == '^') {
+            j++;
+        }
+
+        if (j < regex.length() && regex.charAt(j) == ']') {
+            j++;
+        }
+
+        while (j < regex.length()) {
+            char c = regex.charAt(j);
+            if (c == '\\') {
+                j += 2;
+            } else if (c == ']') {
+                return j + 1;
+            } else {
+                j++;
+            }
+        }
+
+        return j;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import java.util.concurrent.ConcurrentHashMap;
+import com.networknt.schema.regex.RegularExpression;
+import com.networknt.schema.regex.RegularExpressionFactory;
+import lombok.NonNull;
+
+/**
+ * The RegularExpressionFactory that compiles each distinct pattern once, shared across all schemas,
+ * and optionally rejects patterns at risk of catastrophic backtracking when the schema is loaded.
+ * The factory also compiles the values validated with the regex format, so at most
+ * {@link #MAX_CACHED_PATTERNS} patterns are cached and any further patterns are compiled on each
+ * use. The patterns of the schemas are compiled as they load, ahead of the request values.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+class ValidateJsonSchemaRegexFactory implements RegularExpressionFactory {
+
+    /**
+     * The maximum number of compiled regular expressions that are cached
+     */
+    static final int MAX_CACHED_PATTERNS = 1024;
+
+    /**
+     * The compiled regular expressions keyed by their source pattern
+     */
+    private final ConcurrentHashMap<String, RegularExpression> compiled;
+
+    /**
+     * The factory that compiles the regular expressions
+     */
+    private final RegularExpressionFactory delegate;
+
+    /**
+     * Whether patterns at risk of catastrophic backtracking are rejected
+     */
+    private final boolean backtrackingCheckEnabled;
+
+    /**
+     * Creates a new instance of the ValidateJsonSchemaRegexFactory class
+     *
+     * @param delegate                 the factory that compiles the regular expressions
+     * @param backtrackingCheckEnabled whether risky patterns are rejected
+     */
+    ValidateJsonSchemaRegexFactory(@NonNull RegularExpressionFactory delegate,
+            boolean backtrackingCheckEnabled) {
+        this.compiled = new ConcurrentHashMap<>();
+        this.delegate = delegate;
+        this.backtrackingCheckEnabled = backtrackingCheckEnabled;
+    }
+
+    @Override
+    public RegularExpression getRegularExpression(String regex) {
+        RegularExpression regularExpression = this.compiled.get(regex);
+        if (regularExpression != null) {
+            return regularExpression;
+        } else if (this.compiled.size() >= MAX_CACHED_PATTERNS) {
+            return compile(regex);
+        }
+
+        return this.compiled.computeIfAbsent(regex, this::compile);
+    }
+
+    /**
+     * Gets the number of cached regular expressions
+     *
+     * @return the number of cached regular expressions
+     */
+    int size() {
+        return this.compiled.size();
+    }
+
+    private RegularExpression compile(String regex) {
+        if (this.backtrackingCheckEnabled
+                && ValidateJsonSchemaRegexAnalyzer.hasBacktrackingRisk(regex)) {
+            throw new LoadJsonSchemaException(
+                    "JSON Schema pattern at risk of catastrophic backtracking: " + regex);
+        }
+
+        return this.delegate.getRegularExpression(regex);
+    }
+}
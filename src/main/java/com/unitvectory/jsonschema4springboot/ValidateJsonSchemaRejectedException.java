@@ -0,0 +1,36 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Validate JSON Schema Rejected Exception, thrown when the request is not validated because the
+ * concurrency limit of the schema was reached.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ValidateJsonSchemaRejectedException extends RuntimeException {
+
+    /**
+     * Creates a new instance of the ValidateJsonSchemaRejectedException class
+     *
+     * @param message the exception message
+     */
+    public ValidateJsonSchemaRejectedException(String message) {
+        super(message);
+    }
+}
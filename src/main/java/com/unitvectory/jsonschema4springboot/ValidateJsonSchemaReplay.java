@@ -0,0 +1,182 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.core.annotation.MergedAnnotation;
+import tools.jackson.databind.JavaType;
+import tools.jackson.databind.JsonNode;
+import lombok.NonNull;
+
+/**
+ * Replays the payload samples written by the resolver, see
+ * {@link ValidateJsonSchemaConfig#getPayloadSampleRate()}, through the same parse, validate and
+ * bind steps used for requests. Reports the throughput, latency percentiles and allocation rate
+ * per schema, so that validator or configuration changes can be compared with realistic payloads.
+ * The samples are replayed with the annotation attributes they were recorded with, one schema at
+ * a time on the calling thread, bound to {@link JsonNode} and without being sampled again.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+public final class ValidateJsonSchemaReplay {
+
+    private ValidateJsonSchemaReplay() {
+    }
+
+    /**
+     * Replays the samples
+     *
+     * @param resolver         the resolver, configured as in the application
+     * @param samples          the sample file
+     * @param warmupIterations the number of unmeasured passes over the samples of a schema
+     * @param iterations       the number of measured passes over the samples of a schema
+     * @return the results keyed by schema path and version, in the order first sampled
+     * @throws IOException if the sample file could not be read
+     */
+    public static Map<String, ValidateJsonSchemaReplayResult> replay(
+            @NonNull ValidateJsonSchemaArgumentResolver resolver, @NonNull Path samples,
+            int warmupIterations, int iterations) throws IOException {
+        Map<String, List<Sample>> bySchema = read(resolver, samples);
+        JavaType type = resolver.getObjectMapper().constructType(JsonNode.class);
+
+        Map<String, ValidateJsonSchemaReplayResult> results = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Sample>> entry : bySchema.entrySet()) {
+            List<Sample> schemaSamples = entry.getValue();
+            for (int i = 0; i < warmupIterations; i++) {
+                for (Sample sample : schemaSamples) {
+                    run(resolver, type, sample);
+                }
+            }
+
+            long[] latencies = new long[schemaSamples.size() * iterations];
+            int invalid = 0;
+            int operation = 0;
+            long allocatedBefore = allocatedBytes();
+            for (int i = 0; i < iterations; i++) {
+                for (Sample sample : schemaSamples) {
+                    long start = System.nanoTime();
+                    boolean valid = run(resolver, type, sample);
+                    latencies[operation++] = System.nanoTime() - start;
+                    if (!valid) {
+                        invalid++;
+                    }
+                }
+            }
+            long allocatedAfter = allocatedBytes();
+
+            ValidateJsonSchemaVersion version = schemaSamples.get(0).validateJsonSchema.version();
+            results.put(entry.getKey(), new ValidateJsonSchemaReplayResult(
+                    schemaSamples.get(0).validateJsonSchema.schemaPath(), version, latencies,
+                    invalid, allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore));
+        }
+
+        return results;
+    }
+
+    private static Map<String, List<Sample>> read(ValidateJsonSchemaArgumentResolver resolver,
+            Path samples) throws IOException {
+        Map<String, List<Sample>> bySchema = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(samples, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                JsonNode entry = resolver.getObjectMapper().readTree(line);
+
+                // The attributes not in the sample are left to their default
+                Map<String, Object> attributes = new HashMap<>();
+                for (Method attribute : ValidateJsonSchemaPayloadSampler.ATTRIBUTES) {
+                    JsonNode value = entry.get(attribute.getName());
+                    if (value != null) {
+                        attributes.put(attribute.getName(), resolver.getObjectMapper()
+                                .treeToValue(value, attribute.getReturnType()));
+                    }
+                }
+
+                ValidateJsonSchema validateJsonSchema = MergedAnnotation
+                        .of(ValidateJsonSchema.class, attributes).synthesize();
+                String schemaPath = validateJsonSchema.schemaPath();
+                ValidateJsonSchemaVersion version = validateJsonSchema.version();
+
+                // The body is stored as JSON whatever format it was sent in
+                String contentType = entry.path("contentType").asString(null);
+                if (!ValidateJsonSchemaPatchValidator.isJsonPatch(contentType)) {
+                    contentType = "application/json";
+                }
+
+                byte[] body = resolver.getObjectMapper().writeValueAsBytes(entry.path("body"));
+                bySchema.computeIfAbsent(schemaPath + " (" + version.name() + ")",
+                        k -> new ArrayList<>())
+                        .add(new Sample(validateJsonSchema, contentType, body));
+            }
+        }
+
+        return bySchema;
+    }
+
+    private static boolean run(ValidateJsonSchemaArgumentResolver resolver, JavaType type,
+            Sample sample) throws IOException {
+        try {
+            resolver.replayValue(sample.validateJsonSchema, type,
+                    new ByteArrayInputStream(sample.body), sample.contentType);
+            return true;
+        } catch (ValidateJsonSchemaException | ValidateJsonSchemaTimeoutException e) {
+            return false;
+        }
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()
+                && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean.getCurrentThreadAllocatedBytes();
+        }
+
+        return -1;
+    }
+
+    /**
+     * A payload sample
+     */
+    private static class Sample {
+
+        private final ValidateJsonSchema validateJsonSchema;
+
+        private final String contentType;
+
+        private final byte[] body;
+
+        Sample(ValidateJsonSchema validateJsonSchema, String contentType, byte[] body) {
+            this.validateJsonSchema = validateJsonSchema;
+            this.contentType = contentType;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import java.util.Arrays;
+import java.util.Locale;
+import lombok.Getter;
+
+/**
+ * The result of replaying the payload samples of one schema with
+ * {@link ValidateJsonSchemaReplay}.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+@Getter
+public class ValidateJsonSchemaReplayResult {
+
+    /**
+     * The path to the schema
+     */
+    private final String schemaPath;
+
+    /**
+     * The JSON Schema version of the schema
+     */
+    private final ValidateJsonSchemaVersion version;
+
+    /**
+     * The number of measured operations
+     */
+    private final int operations;
+
+    /**
+     * The number of measured operations that did not validate or timed out
+     */
+    private final int invalid;
+
+    /**
+     * The operations per second
+     */
+    private final double throughput;
+
+    /**
+     * The median latency in nanoseconds
+     */
+    private final long p50Nanos;
+
+    /**
+     * The 90th percentile latency in nanoseconds
+     */
+    private final long p90Nanos;
+
+    /**
+     * The 99th percentile latency in nanoseconds
+     */
+    private final long p99Nanos;
+
+    /**
+     * The maximum latency in nanoseconds
+     */
+    private final long maxNanos;
+
+    /**
+     * The bytes allocated per operation, -1 if not supported by the JVM
+     */
+    private final long allocatedBytesPerOperation;
+
+    /**
+     * The bytes allocated per second, -1 if not supported by the JVM
+     */
+    private final double allocationRate;
+
+    /**
+     * Creates a new instance of the ValidateJsonSchemaReplayResult class
+     *
+     * @param schemaPath     the path to the schema
+     * @param version        the JSON Schema version
+     * @param latencies      the latency of each operation in nanoseconds
+     * @param invalid        the number of operations that did not validate or timed out
+     * @param allocatedBytes the bytes allocated by all operations, -1 if not supported
+     */
+    ValidateJsonSchemaReplayResult(String schemaPath, ValidateJsonSchemaVersion version,
+            long[] latencies, int invalid, long allocatedBytes) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        long totalNanos = Arrays.stream(sorted).sum();
+
+        this.schemaPath = schemaPath;
+        this.version = version;
+        this.operations = sorted.length;
+        this.invalid = invalid;
+        this.throughput = totalNanos > 0 ? sorted.length * 1_000_000_000.0 / totalNanos : 0;
+        this.p50Nanos = percentile(sorted, 0.50);
+        this.p90Nanos = percentile(sorted, 0.90);
+        this.p99Nanos = percentile(sorted, 0.99);
+        this.maxNanos = sorted.length > 0 ? sorted[sorted.length - 1] : 0;
+        this.allocatedBytesPerOperation = allocatedBytes < 0 || sorted.length == 0 ? -1
+                : allocatedBytes / sorted.length;
+        this.allocationRate = allocatedBytes < 0 || totalNanos == 0 ? -1
+                : allocatedBytes * 1_000_000_000.0 / totalNanos;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "%s (%s): %d ops (%d invalid), %.1f ops/s, p50 %.1f us, p90 %.1f us, "
+                        + "p99 %.1f us, max %.1f us, %d B/op, %.1f MB/s",
+                this.schemaPath, this.version, this.operations, this.invalid, this.throughput,
+                this.p50Nanos / 1000.0, this.p90Nanos / 1000.0, this.p99Nanos / 1000.0,
+                this.maxNanos / 1000.0, this.allocatedBytesPerOperation,
+                this.allocationRate / (1024 * 1024));
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import java.lang.reflect.Type;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+/**
+ * The request body advice that rejects a {@code @RequestBody} parameter annotated with
+ * {@link ValidateJsonSchema} that is about to be read by a converter other than the
+ * {@link ValidateJsonSchemaHttpMessageConverter}, for example because the converter is not
+ * registered ahead of the others, so the body is never bound without being validated.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+@ControllerAdvice
+public class ValidateJsonSchemaRequestBodyAdvice extends RequestBodyAdviceAdapter {
+
+    @SuppressWarnings("null")
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+            Class<? extends HttpMessageConverter<?>> converterType) {
+        // Only applies to ValidateJsonSchema annotation read by the other converters
+        return methodParameter.hasParameterAnnotation(ValidateJsonSchema.class)
+                && !ValidateJsonSchemaHttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @SuppressWarnings("null")
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter,
+            Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        throw new HttpMessageNotReadableException(
+                "Request body cannot be validated against the JSON Schema", inputMessage);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import java.util.Locale;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * The per-request timing breakdown of the phases in resolving a JSON Schema validated argument.
+ *
+ * The instance is stored as a request attribute under {@link #ATTRIBUTE} and can optionally be
+ * written to the response as a Server-Timing header. A phase that was not reached, for example
+ * binding when validation failed, has a duration of -1. When a request has several validated
+ * parameters their phases are added up into the one instance.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+@Getter
+@Setter(AccessLevel.PACKAGE)
+public class ValidateJsonSchemaTiming {
+
+    /**
+     * The request attribute name the timing is stored under
+     */
+    public static final String ATTRIBUTE = ValidateJsonSchemaTiming.class.getName();
+
+    /**
+     * The Server-Timing response header name
+     */
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    /**
+     * The nanoseconds spent reading the request body, not recorded for compressed bodies as they
+     * are decompressed while parsing
+     */
+    private long readNanos = -1;
+
+    /**
+     * The nanoseconds spent parsing the request body into a JsonNode
+     */
+    private long parseNanos = -1;
+
+    /**
+     * The nanoseconds spent validating the JsonNode against the JSON Schema
+     */
+    private long validateNanos = -1;
+
+    /**
+     * The nanoseconds spent binding the JsonNode to the parameter type
+     */
+    private long bindNanos = -1;
+
+    /**
+     * Creates a new instance of the ValidateJsonSchemaTiming class
+     */
+    ValidateJsonSchemaTiming() {
+    }
+
+    /**
+     * Adds the phases of another parameter of the same request to this timing
+     *
+     * @param other the timing of the other parameter
+     */
+    void add(ValidateJsonSchemaTiming other) {
+        this.readNanos = add(this.readNanos, other.readNanos);
+        this.parseNanos = add(this.parseNanos, other.parseNanos);
+        this.validateNanos = add(this.validateNanos, other.validateNanos);
+        this.bindNanos = add(this.bindNanos, other.bindNanos);
+    }
+
+    /**
+     * Renders the recorded phases as a Server-Timing header value
+     *
+     * @return the header value, empty if no phase was recorded
+     */
+    public String toServerTiming() {
+        StringBuilder sb = new StringBuilder();
+        appendMetric(sb, "jsonread", this.readNanos);
+        appendMetric(sb, "jsonparse", this.parseNanos);
+        appendMetric(sb, "schemavalidate", this.validateNanos);
+        appendMetric(sb, "bind", this.bindNanos);
+        return sb.toString();
+    }
+
+    private static long add(long nanos, long otherNanos) {
+        if (nanos < 0) {
+            return otherNanos;
+        } else if (otherNanos < 0) {
+            return nanos;
+        }
+
+        return nanos + otherNanos;
+    }
+
+    private static void appendMetric(StringBuilder sb, String name, long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+
+        if (sb.length() > 0) {
+            sb.append(", ");
+        }
+
+        // Server-Timing durations are expressed in milliseconds
+        sb.append(name).append(";dur=")
+                .append(String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0));
+    }
+}
@@ -16,11 +16,13 @@ package com.unitvectory.jsonschema4springboot;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import java.nio.charset.StandardCharsets;
 import org.springframework.core.MethodParameter;
 import org.springframework.web.bind.support.WebDataBinderFactory;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.method.support.ModelAndViewContainer;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * The ArgumentResolverMockHelper cases.
@@ -32,6 +34,60 @@ public class ArgumentResolverMockHelper {
     static Object resolveArgument(ValidateJsonSchemaArgumentResolver resolver,
             @SuppressWarnings("rawtypes") Class parameterType, String json,
             ValidateJsonSchemaVersion schemaVersion, String schemaPath) throws Exception {
+        return resolveArgument(resolver, parameterType, json, schemaVersion, schemaPath,
+                mock(HttpServletRequest.class), null);
+    }
+
+    static Object resolveArgument(ValidateJsonSchemaArgumentResolver resolver,
+            @SuppressWarnings("rawtypes") Class parameterType, String json,
+            ValidateJsonSchemaVersion schemaVersion, String schemaPath,
+            HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse)
+            throws Exception {
+        ValidateJsonSchema validateJsonSchema = validateJsonSchema(schemaVersion, schemaPath);
+
+        return resolveArgument(resolver, parameterType, json.getBytes(StandardCharsets.UTF_8),
+                validateJsonSchema, httpServletRequest, httpServletResponse);
+    }
+
+    static Object resolveArgument(ValidateJsonSchemaArgumentResolver resolver,
+            @SuppressWarnings("rawtypes") Class parameterType, byte[] body,
+            ValidateJsonSchemaVersion schemaVersion, String schemaPath, String contentType)
+            throws Exception {
+        ValidateJsonSchema validateJsonSchema = validateJsonSchema(schemaVersion, schemaPath);
+
+        HttpServletRequest httpServletRequest = mock(HttpServletRequest.class);
+        when(httpServletRequest.getContentType()).thenReturn(contentType);
+
+        return resolveArgument(resolver, parameterType, body, validateJsonSchema,
+                httpServletRequest, null);
+    }
+
+    static Object resolvePatchArgument(ValidateJsonSchemaArgumentResolver resolver,
+            @SuppressWarnings("rawtypes") Class parameterType, String json,
+            ValidateJsonSchemaVersion schemaVersion, String schemaPath, String contentType)
+            throws Exception {
+        ValidateJsonSchema validateJsonSchema = validateJsonSchema(schemaVersion, schemaPath);
+        when(validateJsonSchema.patch()).thenReturn(true);
+
+        HttpServletRequest httpServletRequest = mock(HttpServletRequest.class);
+        when(httpServletRequest.getContentType()).thenReturn(contentType);
+
+        return resolveArgument(resolver, parameterType, json.getBytes(StandardCharsets.UTF_8),
+                validateJsonSchema, httpServletRequest, null);
+    }
+
+    static ValidateJsonSchema validateJsonSchema(ValidateJsonSchemaVersion schemaVersion,
+            String schemaPath) {
+        ValidateJsonSchema validateJsonSchema = mock(ValidateJsonSchema.class);
+        when(validateJsonSchema.version()).thenReturn(schemaVersion);
+        when(validateJsonSchema.schemaPath()).thenReturn(schemaPath);
+        return validateJsonSchema;
+    }
+
+    static Object resolveArgument(ValidateJsonSchemaArgumentResolver resolver,
+            @SuppressWarnings("rawtypes") Class parameterType, byte[] body,
+            ValidateJsonSchema validateJsonSchema, HttpServletRequest httpServletRequest,
+            HttpServletResponse httpServletResponse) throws Exception {
 
         // These are not used so they are not mocked
         ModelAndViewContainer mavContainer = null;
@@ -40,22 +96,19 @@ public class ArgumentResolverMockHelper {
         // Mock everything so this can be tested outside of the typical Spring Boot
         // implementation
 
-        ValidateJsonSchema validateJsonSchema = mock(ValidateJsonSchema.class);
-        when(validateJsonSchema.version()).thenReturn(schemaVersion);
-        when(validateJsonSchema.schemaPath()).thenReturn(schemaPath);
-
         MethodParameter parameter = mock(MethodParameter.class);
         when(parameter.getParameterAnnotation(ValidateJsonSchema.class))
                 .thenReturn(validateJsonSchema);
         doReturn(parameterType).when(parameter).getParameterType();
 
-        try (MockServletInputStream mockServletInputStream = new MockServletInputStream(json)) {
-            HttpServletRequest httpServletRequest = mock(HttpServletRequest.class);
+        try (MockServletInputStream mockServletInputStream = new MockServletInputStream(body)) {
             when(httpServletRequest.getInputStream()).thenReturn(mockServletInputStream);
 
             NativeWebRequest webRequest = mock(NativeWebRequest.class);
             when(webRequest.getNativeRequest(HttpServletRequest.class))
                     .thenReturn(httpServletRequest);
+            when(webRequest.getNativeResponse(HttpServletResponse.class))
+                    .thenReturn(httpServletResponse);
 
             // Resolve the argument or throw an exception if input was not validated
             return resolver.resolveArgument(parameter, mavContainer, webRequest, binderFactory);
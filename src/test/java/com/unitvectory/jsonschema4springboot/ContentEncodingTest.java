@@ -0,0 +1,231 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * The compressed request body test cases.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+public class ContentEncodingTest {
+
+    private static final String SCHEMA = "classpath:schema/simpleschemaV7.json";
+
+    private static final ValidateJsonSchemaArgumentResolver RESOLVER = ValidateJsonSchemaArgumentResolver
+            .newInstance(new ValidateJsonSchemaConfig() {
+                @Override
+                public boolean isRequestDecompressionEnabled() {
+                    return true;
+                }
+
+                @Override
+                public long getMaxInflatedSize() {
+                    return 256 * 1024;
+                }
+            });
+
+    @Test
+    public void gzipTest() throws Exception {
+        ExampleValue example = (ExampleValue) resolveArgument(RESOLVER,
+                gzip("{\"value\":\"abc\"}"), "gzip");
+        assertEquals("abc", example.getValue());
+    }
+
+    @Test
+    public void deflateTest() throws Exception {
+        ExampleValue example = (ExampleValue) resolveArgument(RESOLVER,
+                deflate("{\"value\":\"abc\"}"), "Deflate");
+        assertEquals("abc", example.getValue());
+    }
+
+    @Test
+    public void identityTest() throws Exception {
+        ExampleValue example = (ExampleValue) resolveArgument(RESOLVER,
+                "{\"value\":\"abc\"}".getBytes(StandardCharsets.UTF_8), "identity");
+        assertEquals("abc", example.getValue());
+    }
+
+    @Test
+    public void gzipInvalidTest() throws Exception {
+        byte[] body = gzip("{\"value\":\"abcd\"}");
+        ValidateJsonSchemaException thrown = assertThrows(ValidateJsonSchemaException.class,
+                () -> resolveArgument(RESOLVER, body, "gzip"));
+        assertEquals(1, thrown.getValidationResult().size());
+    }
+
+    @Test
+    public void maxInflatedSizeTest() throws Exception {
+        // Random looking content so the compression ratio is not the limit reached
+        StringBuilder sb = new StringBuilder("{\"value\":\"abc\",\"x\":\"");
+        for (int i = 0; sb.length() < 512 * 1024; i++) {
+            sb.append(Integer.toHexString(i * 0x9E3779B1));
+        }
+        sb.append("\"}");
+
+        byte[] body = gzip(sb.toString());
+        ValidateJsonSchemaException thrown = assertThrows(ValidateJsonSchemaException.class,
+                () -> resolveArgument(RESOLVER, body, "gzip"));
+        assertEquals("Decompressed payload exceeds 262144 bytes",
+                thrown.getValidationResult().get(0).getMessage());
+    }
+
+    @Test
+    public void maxCompressionRatioTest() throws Exception {
+        byte[] body = gzip("{\"value\":\"abc\"" + " ".repeat(200 * 1024) + "}");
+        ValidateJsonSchemaException thrown = assertThrows(ValidateJsonSchemaException.class,
+                () -> resolveArgument(RESOLVER, body, "gzip"));
+        assertEquals("Decompressed payload exceeds compression ratio of 100",
+                thrown.getValidationResult().get(0).getMessage());
+    }
+
+    @Test
+    public void unsupportedEncodingTest() throws Exception {
+        byte[] body = "{\"value\":\"abc\"}".getBytes(StandardCharsets.UTF_8);
+        ValidateJsonSchemaException thrown = assertThrows(ValidateJsonSchemaException.class,
+                () -> resolveArgument(RESOLVER, body, "br"));
+        assertEquals("Content-Encoding 'br' is not supported",
+                thrown.getValidationResult().get(0).getMessage());
+    }
+
+    @Test
+    public void corruptGzipTest() throws Exception {
+        byte[] body = "{\"value\":\"abc\"}".getBytes(StandardCharsets.UTF_8);
+        ValidateJsonSchemaException thrown = assertThrows(ValidateJsonSchemaException.class,
+                () -> resolveArgument(RESOLVER, body, "gzip"));
+        assertEquals("Not in GZIP format", thrown.getValidationResult().get(0).getMessage());
+    }
+
+    @Test
+    public void truncatedGzipTest() throws Exception {
+        byte[] gzip = gzip("{\"value\":\"abc\"}");
+        byte[] body = Arrays.copyOf(gzip, gzip.length / 2);
+        ValidateJsonSchemaException thrown = assertThrows(ValidateJsonSchemaException.class,
+                () -> resolveArgument(RESOLVER, body, "gzip"));
+        assertEquals("Compressed payload is truncated",
+                thrown.getValidationResult().get(0).getMessage());
+    }
+
+    @Test
+    public void truncatedDeflateTest() throws Exception {
+        byte[] deflate = deflate("{\"value\":\"abc\"}");
+        byte[] body = Arrays.copyOf(deflate, deflate.length / 2);
+        ValidateJsonSchemaException thrown = assertThrows(ValidateJsonSchemaException.class,
+                () -> resolveArgument(RESOLVER, body, "deflate"));
+        assertEquals("Compressed payload is truncated",
+                thrown.getValidationResult().get(0).getMessage());
+    }
+
+    @Test
+    public void emptyGzipTest() throws Exception {
+        ValidateJsonSchemaException thrown = assertThrows(ValidateJsonSchemaException.class,
+                () -> resolveArgument(RESOLVER, new byte[0], "gzip"));
+        assertEquals("Compressed payload is truncated",
+                thrown.getValidationResult().get(0).getMessage());
+    }
+
+    @Test
+    public void readFailureTest() throws Exception {
+        // Failing to read the body, such as the client disconnecting, is not a payload error
+        byte[] gzip = gzip("{\"value\":\"abc\"}");
+        InputStream body = new SequenceInputStream(
+                new ByteArrayInputStream(gzip, 0, gzip.length / 2), new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("Connection reset");
+                    }
+                });
+
+        IOException thrown = assertThrows(IOException.class,
+                () -> RESOLVER.readValue(
+                        ArgumentResolverMockHelper.validateJsonSchema(ValidateJsonSchemaVersion.V7,
+                                SCHEMA),
+                        RESOLVER.getObjectMapper().constructType(ExampleValue.class), body,
+                        "application/json", "gzip", null, null));
+        assertEquals("Connection reset", thrown.getMessage());
+    }
+
+    @Test
+    public void readEndOfFileTest() throws Exception {
+        // An EOFException from the request rather than the decoder is not a payload error
+        byte[] gzip = gzip("{\"value\":\"abc\"}");
+        InputStream body = new SequenceInputStream(
+                new ByteArrayInputStream(gzip, 0, gzip.length / 2), new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new EOFException("Early EOF");
+                    }
+                });
+
+        EOFException thrown = assertThrows(EOFException.class,
+                () -> RESOLVER.readValue(
+                        ArgumentResolverMockHelper.validateJsonSchema(ValidateJsonSchemaVersion.V7,
+                                SCHEMA),
+                        RESOLVER.getObjectMapper().constructType(ExampleValue.class), body,
+                        "application/json", "gzip", null, null));
+        assertEquals("Early EOF", thrown.getMessage());
+    }
+
+    @Test
+    public void disabledByDefaultTest() throws Exception {
+        byte[] body = gzip("{\"value\":\"abc\"}");
+        assertThrows(ValidateJsonSchemaException.class, () -> resolveArgument(
+                ValidateJsonSchemaArgumentResolver.newInstance(), body, "gzip"));
+    }
+
+    private static Object resolveArgument(ValidateJsonSchemaArgumentResolver resolver,
+            byte[] body, String contentEncoding) throws Exception {
+        HttpServletRequest httpServletRequest = mock(HttpServletRequest.class);
+        when(httpServletRequest.getHeader("Content-Encoding")).thenReturn(contentEncoding);
+
+        return ArgumentResolverMockHelper.resolveArgument(resolver, ExampleValue.class, body,
+                ArgumentResolverMockHelper.validateJsonSchema(ValidateJsonSchemaVersion.V7, SCHEMA),
+                httpServletRequest, null);
+    }
+
+    private static byte[] gzip(String json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(String json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream deflate = new DeflaterOutputStream(out)) {
+            deflate.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return out.toByteArray();
+    }
+}
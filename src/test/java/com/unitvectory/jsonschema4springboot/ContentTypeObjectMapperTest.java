@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * The content type object mapper test cases.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+public class ContentTypeObjectMapperTest {
+
+    private static final String SCHEMA = "classpath:schema/simpleschemaV7.json";
+
+    private static final ObjectMapper CBOR = CBORMapper.builder().build();
+
+    private static final ObjectMapper SMILE = SmileMapper.builder().build();
+
+    private static final ValidateJsonSchemaArgumentResolver RESOLVER = ValidateJsonSchemaArgumentResolver
+            .newInstance(new ValidateJsonSchemaConfig() {
+                @Override
+                public Map<String, ObjectMapper> getContentTypeObjectMappers() {
+                    return Map.of("application/cbor", CBOR, "application/x-jackson-smile", SMILE);
+                }
+            });
+
+    @Test
+    public void cborTest() throws Exception {
+        byte[] body = CBOR.writeValueAsBytes(Map.of("value", "abc"));
+        ExampleValue example = (ExampleValue) ArgumentResolverMockHelper.resolveArgument(RESOLVER,
+                ExampleValue.class, body, ValidateJsonSchemaVersion.V7, SCHEMA,
+                "application/cbor");
+        assertEquals("abc", example.getValue());
+    }
+
+    @Test
+    public void smileTest() throws Exception {
+        byte[] body = SMILE.writeValueAsBytes(Map.of("value", "abc"));
+        ExampleValue example = (ExampleValue) ArgumentResolverMockHelper.resolveArgument(RESOLVER,
+                ExampleValue.class, body, ValidateJsonSchemaVersion.V7, SCHEMA,
+                "Application/X-Jackson-Smile; charset=UTF-8");
+        assertEquals("abc", example.getValue());
+    }
+
+    @Test
+    public void cborInvalidTest() throws Exception {
+        byte[] body = CBOR.writeValueAsBytes(Map.of("value", "abcd"));
+        ValidateJsonSchemaException thrown = assertThrows(ValidateJsonSchemaException.class,
+                () -> ArgumentResolverMockHelper.resolveArgument(RESOLVER, ExampleValue.class,
+                        body, ValidateJsonSchemaVersion.V7, SCHEMA, "application/cbor"));
+        assertEquals(1, thrown.getValidationResult().size());
+    }
+
+    @Test
+    public void jsonFallbackTest() throws Exception {
+        byte[] body = "{\"value\":\"abc\"}".getBytes(StandardCharsets.UTF_8);
+        ExampleValue example = (ExampleValue) ArgumentResolverMockHelper.resolveArgument(RESOLVER,
+                ExampleValue.class, body, ValidateJsonSchemaVersion.V7, SCHEMA,
+                "application/json");
+        assertEquals("abc", example.getValue());
+    }
+}
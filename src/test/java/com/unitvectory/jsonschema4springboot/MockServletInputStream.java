@@ -30,7 +30,11 @@ class MockServletInputStream extends ServletInputStream {
     private InputStream inputStream;
 
     public MockServletInputStream(String input) {
-        this.inputStream = new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8));
+        this(input.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public MockServletInputStream(byte[] input) {
+        this.inputStream = new ByteArrayInputStream(input);
     }
 
     @Override
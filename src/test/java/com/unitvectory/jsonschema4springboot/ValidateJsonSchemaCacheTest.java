@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * The schema cache inspection test cases.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+public class ValidateJsonSchemaCacheTest {
+
+    private static final String SCHEMA = "classpath:schema/simpleschemaV7.json";
+
+    private static final String PATCH_SCHEMA = "classpath:schema/patchschemaV202012.json";
+
+    private static final String DISCRIMINATOR_SCHEMA = "classpath:schema/discriminatorschemaV202012.json";
+
+    @Test
+    public void preloadTest() {
+        ValidateJsonSchemaArgumentResolver resolver = ValidateJsonSchemaArgumentResolver
+                .newInstance();
+        assertTrue(resolver.getSchemaCache().isEmpty());
+
+        resolver.preloadSchema(SCHEMA, ValidateJsonSchemaVersion.V7);
+        resolver.preloadSchema(PATCH_SCHEMA, ValidateJsonSchemaVersion.V202012);
+        resolver.preloadSchema(DISCRIMINATOR_SCHEMA, ValidateJsonSchemaVersion.V202012);
+
+        Map<ValidateJsonSchemaVersion, List<ValidateJsonSchemaCacheInfo>> cache = resolver
+                .getSchemaCache();
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.get(ValidateJsonSchemaVersion.V7).size());
+
+        // Sorted by path
+        List<ValidateJsonSchemaCacheInfo> v202012 = cache.get(ValidateJsonSchemaVersion.V202012);
+        assertEquals(DISCRIMINATOR_SCHEMA, v202012.get(0).getSchemaPath());
+        assertEquals(PATCH_SCHEMA, v202012.get(1).getSchemaPath());
+
+        ValidateJsonSchemaCacheInfo info = cache.get(ValidateJsonSchemaVersion.V7).get(0);
+        assertEquals(SCHEMA, info.getSchemaPath());
+        assertEquals(ValidateJsonSchemaVersion.V7, info.getVersion());
+        assertTrue(info.getCompileTime().toNanos() > 0);
+        assertTrue(info.getEstimatedSize() > 0);
+
+        // Preloading is not a hit
+        assertEquals(0, info.getHits());
+        assertNull(info.getLastUsed());
+    }
+
+    @Test
+    public void hitsTest() throws Exception {
+        ValidateJsonSchemaArgumentResolver resolver = ValidateJsonSchemaArgumentResolver
+                .newInstance();
+        resolve(resolver);
+        resolve(resolver);
+
+        ValidateJsonSchemaCacheInfo info = resolver.getSchemaCache()
+                .get(ValidateJsonSchemaVersion.V7).get(0);
+        assertEquals(2, info.getHits());
+        assertNotNull(info.getLastUsed());
+    }
+
+    @Test
+    public void evictTest() throws Exception {
+        ValidateJsonSchemaArgumentResolver resolver = ValidateJsonSchemaArgumentResolver
+                .newInstance();
+        resolve(resolver);
+        resolver.preloadSchema(PATCH_SCHEMA, ValidateJsonSchemaVersion.V202012);
+
+        assertTrue(resolver.evictSchema(SCHEMA, ValidateJsonSchemaVersion.V7));
+        assertFalse(resolver.evictSchema(SCHEMA, ValidateJsonSchemaVersion.V7));
+        assertFalse(resolver.evictSchema(PATCH_SCHEMA, ValidateJsonSchemaVersion.V7));
+        assertTrue(resolver.getSchemaCache().get(ValidateJsonSchemaVersion.V7).isEmpty());
+        assertEquals(1, resolver.getSchemaCache().get(ValidateJsonSchemaVersion.V202012).size());
+
+        // Loaded again on the next use
+        resolve(resolver);
+        assertEquals(1, resolver.getSchemaCache().get(ValidateJsonSchemaVersion.V7).get(0)
+                .getHits());
+    }
+
+    @Test
+    public void estimateSizeTest() throws Exception {
+        JsonMapper mapper = JsonMapper.builder().build();
+        long small = ValidateJsonSchemaCacheEntry
+                .estimateSize(mapper.readTree("{\"type\":\"string\"}"));
+        long large = ValidateJsonSchemaCacheEntry.estimateSize(mapper.readTree(
+                "{\"type\":\"object\",\"properties\":{\"a\":{\"type\":\"string\"},"
+                        + "\"b\":{\"enum\":[1,2,3]}},\"required\":[\"a\"]}"));
+        assertTrue(small > 0);
+        assertTrue(large > small);
+        assertEquals(0, ValidateJsonSchemaCacheEntry.estimateSize(null));
+    }
+
+    private static void resolve(ValidateJsonSchemaArgumentResolver resolver) throws Exception {
+        ArgumentResolverMockHelper.resolveArgument(resolver, ExampleValue.class,
+                "{\"value\":\"abc\"}", ValidateJsonSchemaVersion.V7, SCHEMA);
+    }
+}
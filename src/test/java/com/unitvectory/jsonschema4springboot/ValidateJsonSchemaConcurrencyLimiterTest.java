@@ -0,0 +1,185 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The ValidateJsonSchemaConcurrencyLimiter test cases.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+public class ValidateJsonSchemaConcurrencyLimiterTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void rejectTest() throws Exception {
+        ValidateJsonSchemaConcurrencyLimiter limiter = new ValidateJsonSchemaConcurrencyLimiter(2,
+                10);
+        assertTrue(limiter.acquire(0));
+        assertTrue(limiter.acquire(0));
+        assertFalse(limiter.acquire(0));
+        assertEquals(2, limiter.getInFlight());
+
+        limiter.release(MILLIS);
+        assertTrue(limiter.acquire(0));
+    }
+
+    @Test
+    public void waitTest() throws Exception {
+        ValidateJsonSchemaConcurrencyLimiter limiter = new ValidateJsonSchemaConcurrencyLimiter(1,
+                1);
+        assertTrue(limiter.acquire(0));
+
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            limiter.release(MILLIS);
+        });
+        releaser.start();
+
+        assertTrue(limiter.acquire(TimeUnit.SECONDS.toNanos(10)));
+        releaser.join();
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    public void contendedTest() throws Exception {
+        ValidateJsonSchemaConcurrencyLimiter limiter = new ValidateJsonSchemaConcurrencyLimiter(2,
+                2);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        // Every waiting thread is woken by a release, none times out
+        Thread[] threads = new Thread[16];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 200; j++) {
+                    try {
+                        if (!limiter.acquire(TimeUnit.SECONDS.toNanos(10))) {
+                            failed.incrementAndGet();
+                            continue;
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+
+                    maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    active.decrementAndGet();
+                    limiter.release(MILLIS);
+                }
+            });
+            threads[i].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(0, failed.get());
+        assertTrue(maxActive.get() <= 2, "max active " + maxActive.get());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void growTest() throws Exception {
+        ValidateJsonSchemaConcurrencyLimiter limiter = new ValidateJsonSchemaConcurrencyLimiter(10,
+                50);
+        saturate(limiter);
+
+        // Stable latency while the limit is used grows the limit
+        sample(limiter, 200, MILLIS);
+        assertEquals(50, limiter.getLimit());
+    }
+
+    @Test
+    public void shrinkTest() throws Exception {
+        ValidateJsonSchemaConcurrencyLimiter limiter = new ValidateJsonSchemaConcurrencyLimiter(50,
+                50);
+        saturate(limiter);
+        sample(limiter, 50, MILLIS);
+        assertEquals(50, limiter.getLimit());
+
+        // Rising latency shrinks the limit
+        sample(limiter, 50, 20 * MILLIS);
+        assertTrue(limiter.getLimit() < 25, "limit " + limiter.getLimit());
+    }
+
+    @Test
+    public void idleTest() throws Exception {
+        ValidateJsonSchemaConcurrencyLimiter limiter = new ValidateJsonSchemaConcurrencyLimiter(10,
+                50);
+
+        // The limit is not grown while it is not being used
+        for (int i = 0; i < 200; i++) {
+            assertTrue(limiter.acquire(0));
+            limiter.release(MILLIS);
+        }
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    public void resolverTest() throws Exception {
+        ValidateJsonSchemaArgumentResolver resolver = ValidateJsonSchemaArgumentResolver
+                .newInstance(new ValidateJsonSchemaConfig() {
+                    @Override
+                    public boolean isConcurrencyLimitEnabled() {
+                        return true;
+                    }
+
+                    @Override
+                    public int getInitialConcurrencyLimit() {
+                        return 1;
+                    }
+                });
+
+        // The permit is released after each validation, including failed ones
+        for (String json : new String[] { "{\"value\":\"abcd\"}", "{\"value\":\"abc\"}" }) {
+            try {
+                ArgumentResolverMockHelper.resolveArgument(resolver, ExampleValue.class, json,
+                        ValidateJsonSchemaVersion.V7, "classpath:schema/simpleschemaV7.json");
+            } catch (ValidateJsonSchemaException e) {
+                assertEquals(1, e.getValidationResult().size());
+            }
+        }
+    }
+
+    private static void saturate(ValidateJsonSchemaConcurrencyLimiter limiter)
+            throws InterruptedException {
+        while (limiter.acquire(0)) {
+            // Fill up to the limit
+        }
+    }
+
+    private static void sample(ValidateJsonSchemaConcurrencyLimiter limiter, int samples,
+            long latencyNanos) throws InterruptedException {
+        for (int i = 0; i < samples; i++) {
+            limiter.release(latencyNanos);
+            saturate(limiter);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import jakarta.servlet.http.HttpServletRequest;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * The validation deadline test cases.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+public class ValidateJsonSchemaDeadlineTest {
+
+    private static final String SCHEMA = "classpath:schema/patchschemaV202012.json";
+
+    private static final ValidateJsonSchemaArgumentResolver RESOLVER = ValidateJsonSchemaArgumentResolver
+            .newInstance(new ValidateJsonSchemaConfig() {
+                @Override
+                public Duration getValidationTimeout() {
+                    return Duration.ofMillis(1);
+                }
+            });
+
+    @Test
+    public void intervalTest() {
+        ValidateJsonSchemaDeadline deadline = new ValidateJsonSchemaDeadline(0);
+
+        // The clock is only checked at the interval
+        for (int i = 1; i < ValidateJsonSchemaDeadline.CHECK_INTERVAL; i++) {
+            deadline.evaluated();
+        }
+
+        ValidateJsonSchemaTimeoutException thrown = assertThrows(
+                ValidateJsonSchemaTimeoutException.class, deadline::evaluated);
+        assertEquals("JSON Schema validation exceeded 0 ms", thrown.getMessage());
+    }
+
+    @Test
+    public void validateTimeoutTest() {
+        assertThrows(ValidateJsonSchemaTimeoutException.class,
+                () -> resolve(tags(200_000, "{\"name\":\"a\",\"tags\":["), -1, false));
+    }
+
+    @Test
+    public void validateWithinTimeoutTest() throws Exception {
+        JsonNode json = (JsonNode) resolve("{\"name\":\"a\",\"tags\":[\"b\"]}", 10_000, false);
+        assertEquals("a", json.get("name").asString());
+    }
+
+    @Test
+    public void disabledTest() {
+        assertDoesNotThrow(() -> resolve(tags(200_000, "{\"name\":\"a\",\"tags\":["), 0, false));
+    }
+
+    @Test
+    public void mergePatchTimeoutTest() {
+        assertThrows(ValidateJsonSchemaTimeoutException.class,
+                () -> resolve(tags(200_000, "{\"tags\":["), -1, true));
+    }
+
+    @Test
+    public void jsonPatchTimeoutTest() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 200_000; i++) {
+            sb.append(i == 0 ? "" : ",")
+                    .append("{\"op\":\"replace\",\"path\":\"/age\",\"value\":1}");
+        }
+        sb.append("]");
+
+        assertThrows(ValidateJsonSchemaTimeoutException.class,
+                () -> resolve(sb.toString(), -1, true));
+    }
+
+    private static String tags(int count, String prefix) {
+        StringBuilder sb = new StringBuilder(prefix);
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "\"a\"" : ",\"a\"");
+        }
+
+        return sb.append("]}").toString();
+    }
+
+    private static Object resolve(String json, long validationTimeoutMillis, boolean patch)
+            throws Exception {
+        ValidateJsonSchema validateJsonSchema = ArgumentResolverMockHelper
+                .validateJsonSchema(ValidateJsonSchemaVersion.V202012, SCHEMA);
+        when(validateJsonSchema.validationTimeoutMillis()).thenReturn(validationTimeoutMillis);
+        when(validateJsonSchema.patch()).thenReturn(patch);
+
+        HttpServletRequest httpServletRequest = mock(HttpServletRequest.class);
+        if (json.startsWith("[")) {
+            when(httpServletRequest.getContentType())
+                    .thenReturn(ValidateJsonSchemaPatchValidator.JSON_PATCH_CONTENT_TYPE);
+        }
+
+        return ArgumentResolverMockHelper.resolveArgument(RESOLVER, JsonNode.class,
+                json.getBytes(StandardCharsets.UTF_8), validateJsonSchema, httpServletRequest,
+                null);
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import com.networknt.schema.Schema;
+import com.networknt.schema.walk.WalkConfig;
+import jakarta.servlet.http.HttpServletRequest;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * The schema defaults and type coercion test cases.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+public class ValidateJsonSchemaDefaultsTest {
+
+    private static final String SCHEMA = "classpath:schema/defaultsschemaV202012.json";
+
+    private static final String ONE_OF_SCHEMA = "classpath:schema/defaultsoneofschemaV202012.json";
+
+    private static final ValidateJsonSchemaArgumentResolver RESOLVER = ValidateJsonSchemaArgumentResolver
+            .newInstance();
+
+    @Test
+    public void defaultsTest() throws Exception {
+        JsonNode json = resolve("{\"name\":\"a\",\"settings\":{}}", true, false, 0);
+        assertEquals("{\"name\":\"a\",\"settings\":{\"mode\":\"auto\"},\"count\":1,"
+                + "\"enabled\":true,\"tags\":[],\"options\":{\"level\":3}}", json.toString());
+
+        // Present properties are kept
+        json = resolve("{\"name\":\"a\",\"count\":5,\"options\":{\"level\":1}}", true, false, 0);
+        assertEquals(5, json.get("count").asInt());
+        assertEquals(1, json.get("options").get("level").asInt());
+    }
+
+    @Test
+    public void defaultsDisabledTest() {
+        // The required count is only satisfied by its default
+        assertThrows(ValidateJsonSchemaException.class,
+                () -> resolve("{\"name\":\"a\"}", false, false, 0));
+    }
+
+    @Test
+    public void defaultsCopiedTest() throws Exception {
+        JsonNode first = resolve("{\"name\":\"a\"}", true, false, 0);
+        ((ObjectNode) first.get("options")).put("level", 9);
+        ((ObjectNode) first.get("options")).put("extra", true);
+
+        JsonNode second = resolve("{\"name\":\"a\"}", true, false, 0);
+        assertNotSame(first.get("options"), second.get("options"));
+        assertEquals("{\"level\":3}", second.get("options").toString());
+    }
+
+    @Test
+    public void defaultsWithTimeoutTest() throws Exception {
+        JsonNode json = resolve("{\"name\":\"a\"}", true, false, 10_000);
+        assertEquals(1, json.get("count").asInt());
+    }
+
+    @Test
+    public void coerceTest() throws Exception {
+        JsonNode json = resolve("{\"name\":\"42\",\"count\":\"42\",\"ratio\":\"1.5e2\","
+                + "\"enabled\":\"false\",\"settings\":{\"retries\":\"3\"}}", false, true, 0);
+        assertTrue(json.get("name").isString());
+        assertTrue(json.get("count").isInt());
+        assertEquals(42, json.get("count").asInt());
+        assertEquals(150.0, json.get("ratio").asDouble());
+        assertFalse(json.get("enabled").asBoolean());
+        assertEquals(3, json.get("settings").get("retries").asInt());
+
+        // Coercion alone does not apply defaults
+        assertNull(json.get("options"));
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "count,4x", "count,1.5", "count,01", "count,-1", "enabled,yes", "ratio,1." })
+    public void coerceInvalidTest(String property, String value) {
+        assertThrows(ValidateJsonSchemaException.class, () -> resolve(
+                "{\"name\":\"a\",\"" + property + "\":\"" + value + "\"}", true, true, 0));
+    }
+
+    @Test
+    public void coerceDisabledTest() {
+        assertThrows(ValidateJsonSchemaException.class,
+                () -> resolve("{\"name\":\"a\",\"count\":\"42\"}", true, false, 0));
+    }
+
+    @Test
+    public void coerceLargeIntegerTest() throws Exception {
+        JsonNode json = resolve("{\"name\":\"a\",\"count\":\"123456789012345678901234567890\"}",
+                false, true, 0);
+        assertTrue(json.get("count").isBigInteger());
+        assertEquals("123456789012345678901234567890", json.get("count").asString());
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "ratio,1e2147483648", "ratio,1e-2147483649", "ratio,1e200000" })
+    public void coerceExponentTest(String property, String value) {
+        // Numbers that do not convert are left as strings and fail validation
+        assertThrows(ValidateJsonSchemaException.class, () -> resolve(
+                "{\"name\":\"a\",\"" + property + "\":\"" + value + "\"}", true, true, 0));
+    }
+
+    @Test
+    public void coerceLengthTest() throws Exception {
+        String digits = "1".repeat(1000);
+        JsonNode json = resolve("{\"name\":\"a\",\"count\":\"" + digits + "\"}", false, true,
+                0);
+        assertEquals(digits, json.get("count").asString());
+        assertTrue(json.get("count").isBigInteger());
+
+        // Longer than the parser allows
+        assertThrows(ValidateJsonSchemaException.class, () -> resolve(
+                "{\"name\":\"a\",\"count\":\"" + digits + "1\"}", false, true, 0));
+    }
+
+    @Test
+    public void oneOfTest() throws Exception {
+        // The defaults of the branches are not applied, so a failed branch does not change the
+        // body the other branch is validated against
+        JsonNode json = resolve(ONE_OF_SCHEMA, "{\"p\":{\"kind\":\"a\"}}", true, false, 0);
+        assertEquals("{\"p\":{\"kind\":\"a\"}}", json.toString());
+
+        json = resolve(ONE_OF_SCHEMA, "{\"p\":{\"kind\":\"b\"}}", true, false, 0);
+        assertEquals("{\"p\":{\"kind\":\"b\"}}", json.toString());
+
+        // The subschemas of allOf always apply
+        json = resolve(ONE_OF_SCHEMA, "{\"q\":{}}", true, false, 0);
+        assertEquals("{\"q\":{\"x\":1}}", json.toString());
+    }
+
+    @Test
+    public void removeTest() {
+        ValidateJsonSchemaDefaults defaults = new ValidateJsonSchemaDefaults(1000);
+        Schema first = mock(Schema.class);
+        Schema second = mock(Schema.class);
+        WalkConfig firstConfig = defaults.getWalkConfig(first, true, false);
+        WalkConfig secondConfig = defaults.getWalkConfig(second, true, false);
+        assertNull(defaults.getWalkConfig(first, false, false));
+
+        // Only the removed schema is forgotten
+        defaults.remove(first);
+        assertNotSame(firstConfig, defaults.getWalkConfig(first, true, false));
+        assertSame(secondConfig, defaults.getWalkConfig(second, true, false));
+    }
+
+    @Test
+    public void patchIgnoredTest() throws Exception {
+        ValidateJsonSchema validateJsonSchema = ArgumentResolverMockHelper
+                .validateJsonSchema(ValidateJsonSchemaVersion.V202012, SCHEMA);
+        when(validateJsonSchema.patch()).thenReturn(true);
+        when(validateJsonSchema.applyDefaults()).thenReturn(true);
+
+        JsonNode json = (JsonNode) ArgumentResolverMockHelper.resolveArgument(RESOLVER,
+                JsonNode.class, "{\"ratio\":2}".getBytes(StandardCharsets.UTF_8),
+                validateJsonSchema, mock(HttpServletRequest.class), null);
+        assertEquals("{\"ratio\":2}", json.toString());
+    }
+
+    private static JsonNode resolve(String json, boolean applyDefaults, boolean coerceTypes,
+            long validationTimeoutMillis) throws Exception {
+        return resolve(SCHEMA, json, applyDefaults, coerceTypes, validationTimeoutMillis);
+    }
+
+    private static JsonNode resolve(String schemaPath, String json, boolean applyDefaults,
+            boolean coerceTypes, long validationTimeoutMillis) throws Exception {
+        ValidateJsonSchema validateJsonSchema = ArgumentResolverMockHelper
+                .validateJsonSchema(ValidateJsonSchemaVersion.V202012, schemaPath);
+        when(validateJsonSchema.applyDefaults()).thenReturn(applyDefaults);
+        when(validateJsonSchema.coerceTypes()).thenReturn(coerceTypes);
+        when(validateJsonSchema.validationTimeoutMillis()).thenReturn(validationTimeoutMillis);
+
+        return (JsonNode) ArgumentResolverMockHelper.resolveArgument(RESOLVER, JsonNode.class,
+                json.getBytes(StandardCharsets.UTF_8), validateJsonSchema,
+                mock(HttpServletRequest.class), null);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import com.networknt.schema.Error;
+
+/**
+ * The discriminator dispatch test cases.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+public class ValidateJsonSchemaDiscriminatorTest {
+
+    private static final String SCHEMA = "classpath:schema/discriminatorschemaV202012.json";
+
+    private static final String PROPERTY_SCHEMA = "classpath:schema/propertydiscriminatorschemaV7.json";
+
+    private static final String PARTIAL_SCHEMA = "classpath:schema/partialdiscriminatorschemaV7.json";
+
+    private static final String MAPPING_SCHEMA = "classpath:schema/mappingdiscriminatorschemaV202012.json";
+
+    private static final String ANCHOR_SCHEMA = "classpath:schema/anchordiscriminatorschemaV202012.json";
+
+    private static ValidateJsonSchemaArgumentResolver discriminatorResolver(String propertyName) {
+        return ValidateJsonSchemaArgumentResolver.newInstance(new ValidateJsonSchemaConfig() {
+            @Override
+            public boolean isDiscriminatorEnabled() {
+                return true;
+            }
+
+            @Override
+            public String getDiscriminatorPropertyName() {
+                return propertyName;
+            }
+        });
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "{\"type\":\"cat\",\"meow\":\"x\"}", "{\"type\":\"dog\",\"bark\":\"y\"}",
+            "{\"type\":\"parrot\",\"wings\":2}" })
+    public void validSameResultTest(String json) throws Exception {
+        Object expected = ArgumentResolverMockHelper.resolveArgument(
+                ValidateJsonSchemaArgumentResolver.newInstance(), Map.class, json,
+                ValidateJsonSchemaVersion.V202012, SCHEMA);
+
+        Object actual = ArgumentResolverMockHelper.resolveArgument(discriminatorResolver(null),
+                Map.class, json, ValidateJsonSchemaVersion.V202012, SCHEMA);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void invalidSelectedBranchTest() {
+        String json = "{\"type\":\"dog\",\"meow\":\"x\"}";
+
+        List<Error> all = validationErrors(ValidateJsonSchemaArgumentResolver.newInstance(), json,
+                ValidateJsonSchemaVersion.V202012, SCHEMA);
+        List<Error> dispatched = validationErrors(discriminatorResolver(null), json,
+                ValidateJsonSchemaVersion.V202012, SCHEMA);
+
+        // Only the dog branch is reported
+        assertTrue(dispatched.size() < all.size());
+        assertEquals(1, dispatched.size());
+        assertEquals("required property 'bark' not found", dispatched.get(0).getMessage());
+    }
+
+    @Test
+    public void unknownValueFallbackTest() {
+        String json = "{\"type\":\"fish\"}";
+
+        List<Error> all = validationErrors(ValidateJsonSchemaArgumentResolver.newInstance(), json,
+                ValidateJsonSchemaVersion.V202012, SCHEMA);
+        List<Error> dispatched = validationErrors(discriminatorResolver(null), json,
+                ValidateJsonSchemaVersion.V202012, SCHEMA);
+
+        assertEquals(messages(all), messages(dispatched));
+    }
+
+    @Test
+    public void configuredPropertyNameTest() throws Exception {
+        ValidateJsonSchemaArgumentResolver resolver = discriminatorResolver("kind");
+
+        Object value = ArgumentResolverMockHelper.resolveArgument(resolver, Map.class,
+                "{\"kind\":\"b\",\"b\":\"z\"}", ValidateJsonSchemaVersion.V7, PROPERTY_SCHEMA);
+        assertEquals(Map.of("kind", "b", "b", "z"), value);
+
+        List<Error> errors = validationErrors(resolver, "{\"kind\":\"a\"}",
+                ValidateJsonSchemaVersion.V7, PROPERTY_SCHEMA);
+        assertEquals(1, errors.size());
+        assertEquals("required property 'a' not found", errors.get(0).getMessage());
+    }
+
+    @Test
+    public void unkeyedBranchAnyOfTest() throws Exception {
+        // Only the branch without a discriminating value matches
+        Object value = ArgumentResolverMockHelper.resolveArgument(discriminatorResolver("kind"),
+                Map.class, "{\"any\":{\"kind\":\"a\",\"other\":1}}",
+                ValidateJsonSchemaVersion.V7, PARTIAL_SCHEMA);
+        assertEquals(Map.of("any", Map.of("kind", "a", "other", 1)), value);
+    }
+
+    @Test
+    public void unkeyedBranchOneOfTest() {
+        // Both branches match so oneOf fails as it does without dispatching
+        String json = "{\"one\":{\"kind\":\"a\",\"a\":\"x\",\"other\":1}}";
+        List<Error> all = validationErrors(ValidateJsonSchemaArgumentResolver.newInstance(), json,
+                ValidateJsonSchemaVersion.V7, PARTIAL_SCHEMA);
+        List<Error> dispatched = validationErrors(discriminatorResolver("kind"), json,
+                ValidateJsonSchemaVersion.V7, PARTIAL_SCHEMA);
+        assertEquals(messages(all), messages(dispatched));
+    }
+
+    @Test
+    public void mappingOnlyTest() throws Exception {
+        // The mapping does not stop the dog branch from matching a cat
+        Object value = ArgumentResolverMockHelper.resolveArgument(discriminatorResolver(null),
+                Map.class, "{\"type\":\"cat\",\"bark\":\"x\"}",
+                ValidateJsonSchemaVersion.V202012, MAPPING_SCHEMA);
+        assertEquals(Map.of("type", "cat", "bark", "x"), value);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "{\"type\":\"cat\",\"meow\":\"x\"}",
+            "{\"type\":\"dog\",\"bark\":\"y\"}" })
+    public void anchorRefTest(String json) throws Exception {
+        // Branches referenced by an anchor load and are evaluated normally
+        Object value = ArgumentResolverMockHelper.resolveArgument(discriminatorResolver(null),
+                Map.class, json, ValidateJsonSchemaVersion.V202012, ANCHOR_SCHEMA);
+        assertEquals(ArgumentResolverMockHelper.resolveArgument(
+                ValidateJsonSchemaArgumentResolver.newInstance(), Map.class, json,
+                ValidateJsonSchemaVersion.V202012, ANCHOR_SCHEMA), value);
+    }
+
+    private static List<Error> validationErrors(ValidateJsonSchemaArgumentResolver resolver,
+            String json, ValidateJsonSchemaVersion version, String schemaPath) {
+        return assertThrows(ValidateJsonSchemaException.class,
+                () -> ArgumentResolverMockHelper.resolveArgument(resolver, Map.class, json,
+                        version, schemaPath))
+                .getValidationResult();
+    }
+
+    private static List<String> messages(List<Error> errors) {
+        return errors.stream().map(Error::getMessage).toList();
+    }
+}
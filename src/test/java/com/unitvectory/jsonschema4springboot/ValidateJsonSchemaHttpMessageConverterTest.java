@@ -0,0 +1,280 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+/**
+ * The ValidateJsonSchemaHttpMessageConverter test cases.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+public class ValidateJsonSchemaHttpMessageConverterTest {
+
+    private static final String SCHEMA = "classpath:schema/simpleschemaV7.json";
+
+    private static final ValidateJsonSchemaHttpMessageConverter CONVERTER = new ValidateJsonSchemaHttpMessageConverter(
+            ValidateJsonSchemaArgumentResolver.newInstance());
+
+    private static final ValidateJsonSchemaRequestBodyAdvice ADVICE = new ValidateJsonSchemaRequestBodyAdvice();
+
+    @Test
+    public void validTest() throws Exception {
+        ExampleValue example = (ExampleValue) read("{\"value\":\"abc\"}", annotated());
+        assertEquals("abc", example.getValue());
+    }
+
+    @Test
+    public void invalidTest() throws Exception {
+        ValidateJsonSchemaException thrown = assertThrows(ValidateJsonSchemaException.class,
+                () -> read("{\"value\":\"abcd\"}", annotated()));
+        assertEquals(1, thrown.getValidationResult().size());
+    }
+
+    @Test
+    public void malformedTest() throws Exception {
+        ValidateJsonSchemaException thrown = assertThrows(ValidateJsonSchemaException.class,
+                () -> read("{\"value\":", annotated()));
+        assertEquals(1, thrown.getValidationResult().size());
+    }
+
+    @Test
+    public void notAnnotatedTest() throws Exception {
+        // Without the annotation the body is left to the other converters and never bound
+        assertFalse(CONVERTER.canRead(notAnnotated(), MediaType.APPLICATION_JSON));
+        assertFalse(CONVERTER.canRead(ExampleValue.class, MediaType.APPLICATION_JSON));
+        assertThrows(HttpMessageNotReadableException.class,
+                () -> read("{\"value\":\"abcd\"}", notAnnotated()));
+        assertThrows(HttpMessageNotReadableException.class,
+                () -> read("{\"value\":\"abcd\"}", ResolvableType.forClass(ExampleValue.class)));
+    }
+
+    @Test
+    public void timingTest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(request, new MockHttpServletResponse()));
+        try {
+            read("{\"value\":\"abc\"}", annotated());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        ValidateJsonSchemaTiming timing = (ValidateJsonSchemaTiming) request
+                .getAttribute(ValidateJsonSchemaTiming.ATTRIBUTE);
+        assertTrue(timing.getValidateNanos() >= 0);
+        assertTrue(timing.getBindNanos() >= 0);
+    }
+
+    @Test
+    public void supportsTest() {
+        MethodParameter parameter = mock(MethodParameter.class);
+        when(parameter.hasParameterAnnotation(ValidateJsonSchema.class)).thenReturn(true);
+        assertFalse(ADVICE.supports(parameter, ExampleValue.class,
+                ValidateJsonSchemaHttpMessageConverter.class));
+        assertTrue(ADVICE.supports(parameter, ExampleValue.class,
+                StringHttpMessageConverter.class));
+
+        when(parameter.hasParameterAnnotation(ValidateJsonSchema.class)).thenReturn(false);
+        assertFalse(ADVICE.supports(parameter, ExampleValue.class,
+                StringHttpMessageConverter.class));
+    }
+
+    @Test
+    public void mediaTypeTest() {
+        assertTrue(CONVERTER.canRead(annotated(), MediaType.APPLICATION_JSON));
+        assertTrue(CONVERTER.canRead(annotated(),
+                MediaType.parseMediaType("application/merge-patch+json")));
+        assertFalse(CONVERTER.canRead(annotated(), MediaType.TEXT_PLAIN));
+        assertFalse(CONVERTER.canWrite(ExampleValue.class, MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    public void mockMvcTest() throws Exception {
+        MockMvc mockMvc = mockMvc(new ValidateJsonSchemaRequestBodyAdvice());
+
+        // The unannotated parameter is read by the other converters
+        assertResponse(200, "{\"value\":\"abcd\"}",
+                post(mockMvc, "/plain", MediaType.APPLICATION_JSON, "{\"value\":\"abcd\"}"));
+
+        assertResponse(200, "abc",
+                post(mockMvc, "/validated", MediaType.APPLICATION_JSON, "{\"value\":\"abc\"}"));
+        assertResponse(400, "invalid",
+                post(mockMvc, "/validated", MediaType.APPLICATION_JSON, "{\"value\":\"abcd\"}"));
+
+        // An annotated parameter the converter cannot read is rejected by the advice
+        assertEquals(400, post(mockMvc, "/validatedString", MediaType.TEXT_PLAIN,
+                "{\"value\":\"abcd\"}").getStatus());
+    }
+
+    @Test
+    public void mockMvcWrappingAdviceTest() throws Exception {
+        // Another advice replacing the message does not disable validation
+        MockMvc mockMvc = mockMvc(new WrappingAdvice(), new ValidateJsonSchemaRequestBodyAdvice());
+
+        assertResponse(400, "invalid",
+                post(mockMvc, "/validated", MediaType.APPLICATION_JSON, "{\"value\":\"abcd\"}"));
+        assertResponse(200, "abc",
+                post(mockMvc, "/validated", MediaType.APPLICATION_JSON, "{\"value\":\"abc\"}"));
+    }
+
+    private static MockHttpServletResponse post(MockMvc mockMvc, String path,
+            MediaType contentType, String body) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.post(path).contentType(contentType)
+                .content(body)).andReturn().getResponse();
+    }
+
+    private static void assertResponse(int status, String body, MockHttpServletResponse response)
+            throws Exception {
+        assertEquals(status, response.getStatus());
+        assertEquals(body, response.getContentAsString());
+    }
+
+    private static MockMvc mockMvc(Object... advice) {
+        // The converter is registered ahead of the others
+        return MockMvcBuilders.standaloneSetup(new ExampleController())
+                .setMessageConverters(CONVERTER,
+                        new StringHttpMessageConverter(StandardCharsets.UTF_8))
+                .setControllerAdvice(advice).build();
+    }
+
+    private static ResolvableType annotated() {
+        return parameterType(0);
+    }
+
+    private static ResolvableType notAnnotated() {
+        return parameterType(1);
+    }
+
+    private static ResolvableType parameterType(int index) {
+        try {
+            return ResolvableType.forMethodParameter(new MethodParameter(
+                    ExampleController.class.getMethod("parameters", ExampleValue.class,
+                            ExampleValue.class),
+                    index));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object read(String json, ResolvableType type) throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        HttpInputMessage inputMessage = mock(HttpInputMessage.class);
+        when(inputMessage.getHeaders()).thenReturn(headers);
+        when(inputMessage.getBody())
+                .thenReturn(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        return CONVERTER.read(type, inputMessage, null);
+    }
+
+    @RestController
+    public static class ExampleController {
+
+        public void parameters(@ValidateJsonSchema(version = ValidateJsonSchemaVersion.V7,
+                schemaPath = SCHEMA) ExampleValue annotated, ExampleValue notAnnotated) {
+        }
+
+        @PostMapping("/plain")
+        public String plain(@RequestBody String body) {
+            return body;
+        }
+
+        @PostMapping("/validated")
+        public String validated(@RequestBody @ValidateJsonSchema(
+                version = ValidateJsonSchemaVersion.V7, schemaPath = SCHEMA) ExampleValue body) {
+            return body.getValue();
+        }
+
+        @PostMapping("/validatedString")
+        public String validatedString(@RequestBody @ValidateJsonSchema(
+                version = ValidateJsonSchemaVersion.V7, schemaPath = SCHEMA) String body) {
+            return body;
+        }
+
+        @ExceptionHandler(ValidateJsonSchemaException.class)
+        public ResponseEntity<String> onValidateJsonSchemaException(
+                ValidateJsonSchemaException ex) {
+            return ResponseEntity.badRequest().body("invalid");
+        }
+    }
+
+    /**
+     * An advice that replaces every request body message, as decrypting or logging advice does.
+     */
+    @ControllerAdvice
+    public static class WrappingAdvice extends RequestBodyAdviceAdapter {
+
+        @SuppressWarnings("null")
+        @Override
+        public boolean supports(MethodParameter methodParameter, Type targetType,
+                Class<? extends HttpMessageConverter<?>> converterType) {
+            return true;
+        }
+
+        @SuppressWarnings("null")
+        @Override
+        public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage,
+                MethodParameter parameter, Type targetType,
+                Class<? extends HttpMessageConverter<?>> converterType) throws IOException {
+            InputStream body = inputMessage.getBody();
+            HttpHeaders headers = inputMessage.getHeaders();
+            return new HttpInputMessage() {
+                @Override
+                public InputStream getBody() {
+                    return body;
+                }
+
+                @Override
+                public HttpHeaders getHeaders() {
+                    return headers;
+                }
+            };
+        }
+    }
+}
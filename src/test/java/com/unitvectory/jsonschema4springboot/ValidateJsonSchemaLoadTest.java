@@ -0,0 +1,274 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * The concurrent load test cases. Requests are sent through MockMvc, so the full Spring MVC
+ * dispatch, argument resolution, validation and binding run on the client threads while the
+ * registries, schema caches and object mappers are shared. Each run sweeps the number of
+ * concurrent clients from 1 to {@code loadtest.maxClients} (default 256), doubling each step, on
+ * platform threads and on virtual threads, and prints the throughput and latency percentiles of
+ * each step.
+ * <p>
+ * Excluded from the default build, run with {@code mvn test -P load-test}. The number of measured
+ * requests per step is set with {@code -Dloadtest.requests} (default 20000). Setting
+ * {@code -Dloadtest.minSpeedup} fails the run if the best throughput is not at least that
+ * multiple of the single client throughput, which catches contention regressions on machines
+ * with several cores.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+@Tag("load")
+public class ValidateJsonSchemaLoadTest {
+
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 20_000);
+
+    private static final int MAX_CLIENTS = Integer.getInteger("loadtest.maxClients", 256);
+
+    private static final double MIN_SPEEDUP = Double
+            .parseDouble(System.getProperty("loadtest.minSpeedup", "0"));
+
+    /**
+     * The requests sent by each client in turn, every fourth request is invalid
+     */
+    private static final List<Scenario> SCENARIOS = List.of(
+            new Scenario(HttpMethod.POST, "/simple", MediaType.APPLICATION_JSON_VALUE,
+                    "{\"value\":\"abc\"}", HttpStatus.OK),
+            new Scenario(HttpMethod.PATCH, "/patch", "application/merge-patch+json",
+                    "{\"name\":\"a\",\"address\":{\"street\":\"b\",\"zip\":\"12345\"}}",
+                    HttpStatus.OK),
+            new Scenario(HttpMethod.POST, "/discriminator", MediaType.APPLICATION_JSON_VALUE,
+                    "{\"type\":\"dog\",\"bark\":\"woof\"}", HttpStatus.OK),
+            new Scenario(HttpMethod.POST, "/simple", MediaType.APPLICATION_JSON_VALUE,
+                    "{\"value\":\"abcd\"}", HttpStatus.BAD_REQUEST),
+            new Scenario(HttpMethod.PATCH, "/patch",
+                    ValidateJsonSchemaPatchValidator.JSON_PATCH_CONTENT_TYPE,
+                    "[{\"op\":\"replace\",\"path\":\"/age\",\"value\":30}]", HttpStatus.OK),
+            new Scenario(HttpMethod.POST, "/discriminator", MediaType.APPLICATION_JSON_VALUE,
+                    "{\"type\":\"parrot\",\"wings\":2}", HttpStatus.OK),
+            new Scenario(HttpMethod.POST, "/discriminator", MediaType.APPLICATION_JSON_VALUE,
+                    "{\"type\":\"cat\",\"bark\":\"woof\"}", HttpStatus.BAD_REQUEST),
+            new Scenario(HttpMethod.PATCH, "/patch",
+                    ValidateJsonSchemaPatchValidator.JSON_PATCH_CONTENT_TYPE,
+                    "[{\"op\":\"remove\",\"path\":\"/name\"}]", HttpStatus.BAD_REQUEST));
+
+    @ParameterizedTest
+    @ValueSource(strings = { "platform", "virtual" })
+    public void sweepTest(String threads) throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new LoadController())
+                .setCustomArgumentResolvers(ValidateJsonSchemaArgumentResolver
+                        .newInstance(new ValidateJsonSchemaConfig() {
+                            @Override
+                            public boolean isDiscriminatorEnabled() {
+                                return true;
+                            }
+                        }))
+                .build();
+
+        // Warms up the schema caches and the JIT before the first measured step
+        run(mockMvc, threads, Math.min(8, MAX_CLIENTS), REQUESTS);
+
+        double singleThroughput = 0;
+        double bestThroughput = 0;
+        for (int clients = 1; clients <= MAX_CLIENTS; clients *= 2) {
+            Result result = run(mockMvc, threads, clients, REQUESTS);
+            System.out.println(result);
+            assertEquals(0, result.unexpected, "unexpected responses with " + clients + " clients");
+
+            if (clients == 1) {
+                singleThroughput = result.throughput;
+            }
+
+            bestThroughput = Math.max(bestThroughput, result.throughput);
+        }
+
+        if (MIN_SPEEDUP > 0) {
+            assertTrue(bestThroughput >= singleThroughput * MIN_SPEEDUP,
+                    String.format(Locale.ROOT,
+                            "best throughput %.1f req/s is less than %.1fx %.1f req/s",
+                            bestThroughput, MIN_SPEEDUP, singleThroughput));
+        }
+    }
+
+    private static Result run(MockMvc mockMvc, String threads, int clients, int requests)
+            throws Exception {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger unexpected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        long elapsed;
+        ExecutorService executor = executor(threads, clients);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int request;
+                    while ((request = next.getAndIncrement()) < requests) {
+                        Scenario scenario = SCENARIOS.get(request % SCENARIOS.size());
+                        long begin = System.nanoTime();
+                        int status = mockMvc.perform(scenario.request()).andReturn().getResponse()
+                                .getStatus();
+                        latencies[request] = System.nanoTime() - begin;
+                        if (status != scenario.expected.value()) {
+                            unexpected.incrementAndGet();
+                        }
+                    }
+
+                    return null;
+                }));
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.MINUTES);
+            }
+
+            elapsed = System.nanoTime() - begin;
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return new Result(threads, clients, latencies, elapsed, unexpected.get());
+    }
+
+    private static ExecutorService executor(String threads, int clients) {
+        if ("platform".equals(threads)) {
+            return Executors.newFixedThreadPool(clients);
+        }
+
+        // The library targets Java 17 so virtual threads are looked up, the load-test profile
+        // requires Java 21 so that they are always compared
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads require Java 21 or later", e);
+        }
+    }
+
+    /**
+     * A request and its expected response status
+     */
+    private record Scenario(HttpMethod method, String url, String contentType, String body,
+            HttpStatus expected) {
+
+        MockHttpServletRequestBuilder request() {
+            return MockMvcRequestBuilders.request(this.method, this.url)
+                    .contentType(this.contentType).content(this.body);
+        }
+    }
+
+    /**
+     * The measurements of one step of the sweep
+     */
+    private static class Result {
+
+        private final String threads;
+
+        private final int clients;
+
+        private final double throughput;
+
+        private final long[] sorted;
+
+        private final int unexpected;
+
+        Result(String threads, int clients, long[] latencies, long elapsedNanos, int unexpected) {
+            this.threads = threads;
+            this.clients = clients;
+            this.throughput = latencies.length * 1_000_000_000.0 / elapsedNanos;
+            this.sorted = latencies.clone();
+            Arrays.sort(this.sorted);
+            this.unexpected = unexpected;
+        }
+
+        private double percentileMicros(double percentile) {
+            int index = (int) Math.ceil(percentile * this.sorted.length) - 1;
+            return this.sorted[Math.max(0, Math.min(index, this.sorted.length - 1))] / 1000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%-8s %3d clients: %9.1f req/s, p50 %8.1f us, p99 %8.1f us, "
+                            + "p99.9 %8.1f us, max %8.1f us",
+                    this.threads, this.clients, this.throughput, percentileMicros(0.50),
+                    percentileMicros(0.99), percentileMicros(0.999), percentileMicros(1));
+        }
+    }
+
+    /**
+     * The controller receiving the load
+     */
+    @RestController
+    public static class LoadController {
+
+        @PostMapping("/simple")
+        public String simple(@ValidateJsonSchema(version = ValidateJsonSchemaVersion.V7,
+                schemaPath = "classpath:schema/simpleschemaV7.json") ExampleValue value) {
+            return "ok";
+        }
+
+        @PatchMapping("/patch")
+        public String patch(@ValidateJsonSchema(version = ValidateJsonSchemaVersion.V202012,
+                schemaPath = "classpath:schema/patchschemaV202012.json",
+                patch = true) JsonNode patch) {
+            return "ok";
+        }
+
+        @PostMapping("/discriminator")
+        public String discriminator(@ValidateJsonSchema(version = ValidateJsonSchemaVersion.V202012,
+                schemaPath = "classpath:schema/discriminatorschemaV202012.json") JsonNode value) {
+            return "ok";
+        }
+
+        @ExceptionHandler(ValidateJsonSchemaException.class)
+        @ResponseStatus(HttpStatus.BAD_REQUEST)
+        public String invalid(ValidateJsonSchemaException e) {
+            return "invalid";
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.IntNode;
+
+/**
+ * The compact node test cases.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+public class ValidateJsonSchemaNodeFactoryTest {
+
+    private static final String SCHEMA = "classpath:schema/simpleschemaV7.json";
+
+    private static final ValidateJsonSchemaArgumentResolver RESOLVER = ValidateJsonSchemaArgumentResolver
+            .newInstance();
+
+    private static final ValidateJsonSchemaArgumentResolver COMPACT_RESOLVER = ValidateJsonSchemaArgumentResolver
+            .newInstance(new ValidateJsonSchemaConfig() {
+                @Override
+                public boolean isCompactNodesEnabled() {
+                    return true;
+                }
+            });
+
+    @Test
+    public void compactMapTest() {
+        Random random = new Random(42);
+        for (int run = 0; run < 100; run++) {
+            Map<String, JsonNode> expected = new LinkedHashMap<>();
+            Map<String, JsonNode> actual = new ValidateJsonSchemaCompactMap();
+            for (int i = 0; i < 50; i++) {
+                // Keys are built so they are not the same instance as the ones stored
+                String key = "k" + random.nextInt(12);
+                JsonNode value = IntNode.valueOf(i);
+                switch (random.nextInt(4)) {
+                    case 0, 1 -> assertEquals(expected.put(key, value), actual.put(key, value));
+                    case 2 -> assertEquals(expected.remove(key), actual.remove(key));
+                    default -> removeWithIterator(expected, actual, key);
+                }
+
+                assertEquals(expected, actual);
+                assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(actual.keySet()));
+                assertEquals(expected.get(key), actual.get(key));
+                assertEquals(expected.containsKey(key), actual.containsKey(key));
+            }
+        }
+    }
+
+    @Test
+    public void setValueTest() {
+        Map<String, JsonNode> map = new ValidateJsonSchemaCompactMap();
+        map.put("a", IntNode.valueOf(1));
+        map.put("b", IntNode.valueOf(2));
+        for (Map.Entry<String, JsonNode> entry : map.entrySet()) {
+            entry.setValue(IntNode.valueOf(entry.getValue().asInt() * 10));
+        }
+
+        assertEquals(Map.of("a", IntNode.valueOf(10), "b", IntNode.valueOf(20)), map);
+    }
+
+    @Test
+    public void parseTest() throws Exception {
+        StringBuilder sb = new StringBuilder("{\"small\":{\"a\":1,\"b\":[1,2,3000],\"c\":null},");
+        for (int i = 0; i < 20; i++) {
+            sb.append("\"p").append(i).append("\":{\"n\":").append(i).append(",\"s\":\"x\"},");
+        }
+        sb.append("\"last\":[true,1.5,\"y\",{}]}");
+
+        JsonNode expected = read(RESOLVER, sb.toString());
+        JsonNode actual = read(COMPACT_RESOLVER, sb.toString());
+        assertEquals(expected, actual);
+        assertEquals(expected.toString(), actual.toString());
+
+        // Small integers share their node, which also shows the compact factory was used
+        assertSame(actual.get("small").get("a"), actual.get("small").get("b").get(0));
+        assertSame(actual.get("p5").get("n"), read(COMPACT_RESOLVER, "[5]").get(0));
+    }
+
+    @Test
+    public void validateTest() throws Exception {
+        ExampleValue value = (ExampleValue) ArgumentResolverMockHelper.resolveArgument(
+                COMPACT_RESOLVER, ExampleValue.class, "{\"value\":\"abc\"}",
+                ValidateJsonSchemaVersion.V7, SCHEMA);
+        assertEquals("abc", value.getValue());
+
+        String invalid = "{\"value\":\"abcd\",\"extra\":1}";
+        ValidateJsonSchemaException expected = assertThrows(ValidateJsonSchemaException.class,
+                () -> ArgumentResolverMockHelper.resolveArgument(RESOLVER, ExampleValue.class,
+                        invalid, ValidateJsonSchemaVersion.V7, SCHEMA));
+        ValidateJsonSchemaException actual = assertThrows(ValidateJsonSchemaException.class,
+                () -> ArgumentResolverMockHelper.resolveArgument(COMPACT_RESOLVER,
+                        ExampleValue.class, invalid, ValidateJsonSchemaVersion.V7, SCHEMA));
+        assertEquals(expected.getValidationResult().toString(),
+                actual.getValidationResult().toString());
+    }
+
+    private static void removeWithIterator(Map<String, JsonNode> expected,
+            Map<String, JsonNode> actual, String key) {
+        for (Map<String, JsonNode> map : List.of(expected, actual)) {
+            Iterator<String> iterator = map.keySet().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().equals(key)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private static JsonNode read(ValidateJsonSchemaArgumentResolver resolver, String json)
+            throws Exception {
+        return (JsonNode) resolver.readValue(null,
+                resolver.getObjectMapper().constructType(JsonNode.class),
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)),
+                "application/json", null, null, null);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.util.List;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import com.networknt.schema.Error;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * The ValidateJsonSchemaPatchValidator test cases.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+public class ValidateJsonSchemaPatchValidatorTest {
+
+    private static final String SCHEMA = "classpath:schema/patchschemaV202012.json";
+
+    private static final String ANCHOR_SCHEMA =
+            "classpath:schema/anchorpatchschemaV202012.json";
+
+    private static final ValidateJsonSchemaArgumentResolver RESOLVER = ValidateJsonSchemaArgumentResolver
+            .newInstance();
+
+    @ParameterizedTest
+    @ValueSource(strings = { "{\"age\":3}", "{\"age\":null}", "{\"address\":{\"zip\":\"12345\"}}",
+            "{\"address\":{\"zip\":null}}", "{\"tags\":[\"a\",\"b\"]}", "{}" })
+    public void validMergePatchTest(String json) throws Exception {
+        JsonNode patch = (JsonNode) ArgumentResolverMockHelper.resolvePatchArgument(RESOLVER,
+                JsonNode.class, json, ValidateJsonSchemaVersion.V202012, SCHEMA,
+                ValidateJsonSchemaPatchValidator.MERGE_PATCH_CONTENT_TYPE);
+        assertNotNull(patch);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = { "{\"age\":-1}|1", "{\"name\":null}|1",
+            "{\"address\":{\"zip\":\"1\",\"street\":null}}|2", "{\"tags\":[\"toolong\"]}|1",
+            "{\"other\":1}|1", "[]|1", "{\"name\":{\"a\":1}}|1", "{\"age\":{\"a\":null}}|1" })
+    public void invalidMergePatchTest(String json, int errors) {
+        ValidateJsonSchemaException thrown = assertThrows(ValidateJsonSchemaException.class,
+                () -> ArgumentResolverMockHelper.resolvePatchArgument(RESOLVER, JsonNode.class,
+                        json, ValidateJsonSchemaVersion.V202012, SCHEMA,
+                        ValidateJsonSchemaPatchValidator.MERGE_PATCH_CONTENT_TYPE));
+        assertEquals(errors, thrown.getValidationResult().size());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "[{\"op\":\"replace\",\"path\":\"/age\",\"value\":4}]",
+            "[{\"op\":\"add\",\"path\":\"/tags/-\",\"value\":\"x\"}]",
+            "[{\"op\":\"remove\",\"path\":\"/address/zip\"}]",
+            "[{\"op\":\"test\",\"path\":\"/address/zip\",\"value\":\"12345\"}]",
+            "[{\"op\":\"copy\",\"from\":\"/tags/0\",\"path\":\"/tags/-\"}]",
+            "[{\"op\":\"move\",\"from\":\"/address/zip\",\"path\":\"/address/other\"}]", "[]" })
+    public void validJsonPatchTest(String json) throws Exception {
+        JsonNode patch = (JsonNode) ArgumentResolverMockHelper.resolvePatchArgument(RESOLVER,
+                JsonNode.class, json, ValidateJsonSchemaVersion.V202012, SCHEMA,
+                ValidateJsonSchemaPatchValidator.JSON_PATCH_CONTENT_TYPE);
+        assertNotNull(patch);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "[{\"op\":\"replace\",\"path\":\"/age\",\"value\":\"x\"}]|string found, integer expected",
+            "[{\"op\":\"remove\",\"path\":\"/name\"}]|required property 'name' cannot be removed",
+            "[{\"op\":\"add\",\"path\":\"/other\",\"value\":1}]|property 'other' is not defined in the schema and the schema does not allow additional properties",
+            "[{\"op\":\"move\",\"from\":\"/address/street\",\"path\":\"/address/x\"}]|required property 'street' cannot be removed",
+            "[{\"op\":\"copy\",\"from\":\"/name\",\"path\":\"/age\"}]|JSON Patch copy from '/name' cannot be validated against the schema of the path",
+            "[{\"op\":\"move\",\"from\":\"/address/zip\",\"path\":\"/name\"}]|JSON Patch move from '/address/zip' cannot be validated against the schema of the path",
+            "[{\"op\":\"delete\",\"path\":\"/age\"}]|JSON Patch operation 'delete' is not supported",
+            "[{\"op\":\"add\",\"path\":\"age\",\"value\":1}]|JSON Patch operation must have an op and a valid path",
+            "{}|JSON Patch must be an array of operations" })
+    public void invalidJsonPatchTest(String json, String message) {
+        ValidateJsonSchemaException thrown = assertThrows(ValidateJsonSchemaException.class,
+                () -> ArgumentResolverMockHelper.resolvePatchArgument(RESOLVER, JsonNode.class,
+                        json, ValidateJsonSchemaVersion.V202012, SCHEMA,
+                        ValidateJsonSchemaPatchValidator.JSON_PATCH_CONTENT_TYPE));
+        List<String> messages = thrown.getValidationResult().stream()
+                .map(Error::getMessage).toList();
+        assertEquals(List.of(message), messages);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "{\"address\":{\"zip\":\"12345\"}}", "{\"address\":{\"zip\":null}}",
+            "{\"name\":\"a\"}" })
+    public void anchorMergePatchTest(String json) throws Exception {
+        JsonNode patch = (JsonNode) ArgumentResolverMockHelper.resolvePatchArgument(RESOLVER,
+                JsonNode.class, json, ValidateJsonSchemaVersion.V202012, ANCHOR_SCHEMA,
+                ValidateJsonSchemaPatchValidator.MERGE_PATCH_CONTENT_TYPE);
+        assertNotNull(patch);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "[{\"op\":\"replace\",\"path\":\"/address\",\"value\":{\"zip\":\"1\"}}]|2",
+            "[{\"op\":\"add\",\"path\":\"/other\",\"value\":1}]|1" })
+    public void anchorJsonPatchTest(String json, int errors) {
+        ValidateJsonSchemaException thrown = assertThrows(ValidateJsonSchemaException.class,
+                () -> ArgumentResolverMockHelper.resolvePatchArgument(RESOLVER, JsonNode.class,
+                        json, ValidateJsonSchemaVersion.V202012, ANCHOR_SCHEMA,
+                        ValidateJsonSchemaPatchValidator.JSON_PATCH_CONTENT_TYPE));
+        assertEquals(errors, thrown.getValidationResult().size());
+    }
+}
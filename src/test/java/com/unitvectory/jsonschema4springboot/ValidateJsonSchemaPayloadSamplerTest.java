@@ -0,0 +1,274 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.annotation.MergedAnnotation;
+import jakarta.servlet.http.HttpServletRequest;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * The payload sampling and replay test cases.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+public class ValidateJsonSchemaPayloadSamplerTest {
+
+    private static final String SCHEMA = "classpath:schema/simpleschemaV7.json";
+
+    private static final String PATCH_SCHEMA = "classpath:schema/patchschemaV202012.json";
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder().build();
+
+    @TempDir
+    Path directory;
+
+    private final List<ValidateJsonSchemaArgumentResolver> resolvers = new ArrayList<>();
+
+    @AfterEach
+    public void close() {
+        this.resolvers.forEach(ValidateJsonSchemaArgumentResolver::close);
+    }
+
+    @Test
+    public void sampleTest() throws Exception {
+        ValidateJsonSchemaArgumentResolver resolver = resolver(10_000_000, 5);
+        ArgumentResolverMockHelper.resolveArgument(resolver, ExampleValue.class,
+                "{\"value\":\"abc\"}", ValidateJsonSchemaVersion.V7, SCHEMA);
+        ArgumentResolverMockHelper.resolvePatchArgument(resolver, JsonNode.class,
+                "{\"address\":{\"street\":\"a\",\"zip\":\"12345\"}}",
+                ValidateJsonSchemaVersion.V202012, PATCH_SCHEMA, "application/merge-patch+json");
+
+        // Invalid payloads are sampled too
+        assertThrows(ValidateJsonSchemaException.class,
+                () -> ArgumentResolverMockHelper.resolveArgument(resolver, ExampleValue.class,
+                        "{\"value\":\"abcd\"}", ValidateJsonSchemaVersion.V7, SCHEMA));
+
+        List<String> lines = lines(resolver);
+        assertEquals(3, lines.size());
+
+        JsonNode first = MAPPER.readTree(lines.get(0));
+        assertEquals(SCHEMA, first.get("schemaPath").asString());
+        assertEquals("V7", first.get("version").asString());
+        assertFalse(first.has("patch"));
+        assertEquals(ValidateJsonSchemaPayloadSampler.REDACTED,
+                first.get("body").get("value").asString());
+
+        JsonNode second = MAPPER.readTree(lines.get(1));
+        assertTrue(second.get("patch").asBoolean());
+        assertEquals("application/merge-patch+json", second.get("contentType").asString());
+        assertEquals(ValidateJsonSchemaPayloadSampler.REDACTED,
+                second.get("body").get("address").get("zip").asString());
+        assertEquals("a", second.get("body").get("address").get("street").asString());
+    }
+
+    @Test
+    public void rotateTest() throws Exception {
+        ValidateJsonSchemaArgumentResolver resolver = resolver(200, 3);
+        for (int i = 0; i < 20; i++) {
+            ArgumentResolverMockHelper.resolveArgument(resolver, ExampleValue.class,
+                    "{\"value\":\"abc\"}", ValidateJsonSchemaVersion.V7, SCHEMA);
+        }
+
+        assertTrue(resolver.getPayloadSampler().flush(10_000));
+        assertTrue(Files.exists(ValidateJsonSchemaPayloadSampler.file(this.directory, 0)));
+        assertTrue(Files.exists(ValidateJsonSchemaPayloadSampler.file(this.directory, 1)));
+        assertTrue(Files.exists(ValidateJsonSchemaPayloadSampler.file(this.directory, 2)));
+        assertFalse(Files.exists(ValidateJsonSchemaPayloadSampler.file(this.directory, 3)));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(Files.size(ValidateJsonSchemaPayloadSampler.file(this.directory, i)) <= 200);
+        }
+    }
+
+    @Test
+    public void replayTest() throws Exception {
+        Path samples = this.directory.resolve("samples.jsonl");
+        Files.write(samples, List.of(
+                "{\"schemaPath\":\"" + SCHEMA + "\",\"version\":\"V7\",\"body\":{\"value\":\"abc\"}}",
+                "{\"schemaPath\":\"" + SCHEMA + "\",\"version\":\"V7\",\"body\":{\"value\":\"abcd\"}}",
+                "",
+                "{\"schemaPath\":\"" + PATCH_SCHEMA + "\",\"version\":\"V202012\",\"patch\":true,"
+                        + "\"contentType\":\"application/json-patch+json\","
+                        + "\"body\":[{\"op\":\"remove\",\"path\":\"/name\"}]}"));
+
+        Map<String, ValidateJsonSchemaReplayResult> results = ValidateJsonSchemaReplay
+                .replay(ValidateJsonSchemaArgumentResolver.newInstance(), samples, 2, 10);
+        assertEquals(2, results.size());
+
+        ValidateJsonSchemaReplayResult simple = results.get(SCHEMA + " (V7)");
+        assertEquals(20, simple.getOperations());
+        assertEquals(10, simple.getInvalid());
+        assertTrue(simple.getThroughput() > 0);
+        assertTrue(simple.getP50Nanos() <= simple.getP99Nanos());
+        assertTrue(simple.getP99Nanos() <= simple.getMaxNanos());
+
+        // The patch flag and content type select the JSON Patch validation
+        ValidateJsonSchemaReplayResult patch = results.get(PATCH_SCHEMA + " (V202012)");
+        assertEquals(10, patch.getOperations());
+        assertEquals(10, patch.getInvalid());
+    }
+
+    @Test
+    public void attributesTest() throws Exception {
+        ValidateJsonSchemaArgumentResolver resolver = resolver(10_000_000, 5);
+        ValidateJsonSchema validateJsonSchema = MergedAnnotation.of(ValidateJsonSchema.class,
+                Map.of("schemaPath", SCHEMA, "version", ValidateJsonSchemaVersion.V7,
+                        "validationTimeoutMillis", 5000L, "applyDefaults", true, "coerceTypes",
+                        true))
+                .synthesize();
+        ArgumentResolverMockHelper.resolveArgument(resolver, ExampleValue.class,
+                "{\"value\":\"abc\"}".getBytes(StandardCharsets.UTF_8), validateJsonSchema,
+                mock(HttpServletRequest.class), null);
+
+        // Every attribute that is not the default is recorded
+        JsonNode line = MAPPER.readTree(lines(resolver).get(0));
+        assertEquals(List.of("schemaPath", "version", "applyDefaults", "coerceTypes",
+                "validationTimeoutMillis", "body"), List.copyOf(line.propertyNames()));
+        assertEquals(5000, line.get("validationTimeoutMillis").asLong());
+        assertTrue(line.get("applyDefaults").asBoolean());
+        assertTrue(line.get("coerceTypes").asBoolean());
+    }
+
+    @Test
+    public void replaySampledTest() throws Exception {
+        ValidateJsonSchemaArgumentResolver resolver = resolver(10_000_000, 5);
+        ArgumentResolverMockHelper.resolveArgument(resolver, ExampleValue.class,
+                "{\"value\":\"abc\"}", ValidateJsonSchemaVersion.V7, SCHEMA);
+        assertEquals(1, lines(resolver).size());
+
+        // Replaying with the sampling resolver does not append to the file being replayed
+        ValidateJsonSchemaReplay.replay(resolver,
+                ValidateJsonSchemaPayloadSampler.file(this.directory, 0), 1, 5);
+        assertEquals(1, lines(resolver).size());
+    }
+
+    @Test
+    public void directoryTest() throws Exception {
+        // Sampling has no default directory
+        ValidateJsonSchemaConfig withoutDirectory = new ValidateJsonSchemaConfig() {
+            @Override
+            public double getPayloadSampleRate() {
+                return 1;
+            }
+        };
+        assertThrows(NullPointerException.class,
+                () -> ValidateJsonSchemaArgumentResolver.newInstance(withoutDirectory));
+
+        Path sampleDirectory = this.directory.resolve("samples");
+        ValidateJsonSchemaArgumentResolver resolver = ValidateJsonSchemaArgumentResolver
+                .newInstance(new ValidateJsonSchemaConfig() {
+                    @Override
+                    public double getPayloadSampleRate() {
+                        return 1;
+                    }
+
+                    @Override
+                    public Path getPayloadSampleDirectory() {
+                        return sampleDirectory;
+                    }
+                });
+        this.resolvers.add(resolver);
+        ArgumentResolverMockHelper.resolveArgument(resolver, ExampleValue.class,
+                "{\"value\":\"abc\"}", ValidateJsonSchemaVersion.V7, SCHEMA);
+        assertTrue(resolver.getPayloadSampler().flush(10_000));
+
+        // The samples are only readable by the owner
+        assumeTrue(sampleDirectory.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        assertEquals(PosixFilePermissions.fromString("rwx------"),
+                Files.getPosixFilePermissions(sampleDirectory));
+        assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(
+                ValidateJsonSchemaPayloadSampler.file(sampleDirectory, 0)));
+    }
+
+    @Test
+    public void closeTest() throws Exception {
+        ValidateJsonSchemaPayloadSampler sampler;
+        try (ValidateJsonSchemaArgumentResolver resolver = resolver(10_000_000, 5)) {
+            sampler = resolver.getPayloadSampler();
+            for (int i = 0; i < 10; i++) {
+                ArgumentResolverMockHelper.resolveArgument(resolver, ExampleValue.class,
+                        "{\"value\":\"abc\"}", ValidateJsonSchemaVersion.V7, SCHEMA);
+            }
+        }
+
+        // The queued samples are written before the background thread stops
+        assertFalse(sampler.isRunning());
+        Path file = ValidateJsonSchemaPayloadSampler.file(this.directory, 0);
+        assertEquals(10, Files.readAllLines(file).size());
+
+        // Samples taken once closed are dropped
+        ValidateJsonSchema validateJsonSchema = MergedAnnotation.of(ValidateJsonSchema.class,
+                Map.of("schemaPath", SCHEMA, "version", ValidateJsonSchemaVersion.V7))
+                .synthesize();
+        sampler.sample(validateJsonSchema, null, MAPPER.readTree("{\"value\":\"abc\"}"));
+        assertTrue(sampler.flush(10_000));
+        assertEquals(10, Files.readAllLines(file).size());
+    }
+
+    private List<String> lines(ValidateJsonSchemaArgumentResolver resolver) throws Exception {
+        assertTrue(resolver.getPayloadSampler().flush(10_000));
+        return Files.readAllLines(ValidateJsonSchemaPayloadSampler.file(this.directory, 0));
+    }
+
+    private ValidateJsonSchemaArgumentResolver resolver(long maxFileSize, int maxFiles) {
+        Path sampleDirectory = this.directory;
+        ValidateJsonSchemaArgumentResolver resolver = ValidateJsonSchemaArgumentResolver
+                .newInstance(new ValidateJsonSchemaConfig() {
+                    @Override
+                    public double getPayloadSampleRate() {
+                        return 1;
+                    }
+
+                    @Override
+                    public Path getPayloadSampleDirectory() {
+                        return sampleDirectory;
+                    }
+
+                    @Override
+                    public Set<String> getPayloadSampleRedactedFields() {
+                        return Set.of("value", "zip");
+                    }
+
+                    @Override
+                    public long getPayloadSampleMaxFileSize() {
+                        return maxFileSize;
+                    }
+
+                    @Override
+                    public int getPayloadSampleMaxFiles() {
+                        return maxFiles;
+                    }
+                });
+        this.resolvers.add(resolver);
+        return resolver;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import com.networknt.schema.SchemaRegistryConfig;
+import com.networknt.schema.regex.JDKRegularExpressionFactory;
+import com.networknt.schema.regex.RegularExpressionFactory;
+
+/**
+ * The ValidateJsonSchemaRegexAnalyzer test cases.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+public class ValidateJsonSchemaRegexAnalyzerTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = { "^(a+)+$", "(a*)*", "(\\w+\\s?)*", "((ab)*c)+", "(?:x+y?){2,}",
+            "([a-z]+\\.)+com" })
+    public void riskyPatternTest(String regex) {
+        assertTrue(ValidateJsonSchemaRegexAnalyzer.hasBacktrackingRisk(regex));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "^[a-zA-Z0-9]{3}$", "^(a|b)+$", "(a+)?", "(ab){1,3}", "[(a+)]+",
+            "\\(a+\\)+", "^\\d{3}-\\d+$" })
+    public void safePatternTest(String regex) {
+        assertFalse(ValidateJsonSchemaRegexAnalyzer.hasBacktrackingRisk(regex));
+    }
+
+    @Test
+    public void backtrackingCheckTest() {
+        ValidateJsonSchemaArgumentResolver resolver = ValidateJsonSchemaArgumentResolver
+                .newInstance(new ValidateJsonSchemaConfig() {
+                    @Override
+                    public boolean isRegexBacktrackingCheckEnabled() {
+                        return true;
+                    }
+                });
+
+        LoadJsonSchemaException thrown = assertThrows(LoadJsonSchemaException.class,
+                () -> resolver.preloadSchema("classpath:schema/backtrackingschemaV7.json",
+                        ValidateJsonSchemaVersion.V7));
+
+        assertEquals(
+                "JSON Schema failed to load from path: classpath:schema/backtrackingschemaV7.json",
+                thrown.getMessage());
+        assertInstanceOf(LoadJsonSchemaException.class, rootCause(thrown.getCause()));
+
+        // Safe patterns still load
+        resolver.preloadSchema("classpath:schema/simpleschemaV7.json",
+                ValidateJsonSchemaVersion.V7);
+    }
+
+    @Test
+    public void re2jTest() throws Exception {
+        ValidateJsonSchemaArgumentResolver resolver = ValidateJsonSchemaArgumentResolver
+                .newInstance(new ValidateJsonSchemaConfig() {
+                    @Override
+                    public RegularExpressionFactory getRegularExpressionFactory() {
+                        return Re2jRegularExpressionFactory.getInstance();
+                    }
+                });
+
+        ExampleValue example = (ExampleValue) ArgumentResolverMockHelper.resolveArgument(resolver,
+                ExampleValue.class, "{\"value\":\"abc\"}", ValidateJsonSchemaVersion.V7,
+                "classpath:schema/simpleschemaV7.json");
+        assertEquals("abc", example.getValue());
+
+        ValidateJsonSchemaException thrown = assertThrows(ValidateJsonSchemaException.class,
+                () -> ArgumentResolverMockHelper.resolveArgument(resolver, ExampleValue.class,
+                        "{\"value\":\"abcd\"}", ValidateJsonSchemaVersion.V7,
+                        "classpath:schema/simpleschemaV7.json"));
+        assertEquals(1, thrown.getValidationResult().size());
+    }
+
+    @Test
+    public void schemaRegistryConfigFactoryTest() throws Exception {
+        // A factory set on the SchemaRegistryConfig is used when the hook is not overridden
+        AtomicInteger compiled = new AtomicInteger();
+        RegularExpressionFactory factory = regex -> {
+            compiled.incrementAndGet();
+            return JDKRegularExpressionFactory.getInstance().getRegularExpression(regex);
+        };
+        ValidateJsonSchemaArgumentResolver resolver = ValidateJsonSchemaArgumentResolver
+                .newInstance(new ValidateJsonSchemaConfig() {
+                    @Override
+                    public SchemaRegistryConfig getSchemaRegistryConfig() {
+                        return SchemaRegistryConfig.builder(
+                                ValidateJsonSchemaConfig.super.getSchemaRegistryConfig())
+                                .regularExpressionFactory(factory).build();
+                    }
+                });
+
+        resolver.preloadSchema("classpath:schema/simpleschemaV7.json",
+                ValidateJsonSchemaVersion.V7);
+        assertEquals(1, compiled.get());
+    }
+
+    @Test
+    public void cacheBoundTest() {
+        ValidateJsonSchemaRegexFactory factory = new ValidateJsonSchemaRegexFactory(
+                JDKRegularExpressionFactory.getInstance(), false);
+        for (int i = 0; i < ValidateJsonSchemaRegexFactory.MAX_CACHED_PATTERNS + 100; i++) {
+            assertTrue(factory.getRegularExpression("^a{" + i + "}$").matches("a".repeat(i)));
+        }
+
+        assertEquals(ValidateJsonSchemaRegexFactory.MAX_CACHED_PATTERNS, factory.size());
+
+        // Cached patterns are shared
+        assertSame(factory.getRegularExpression("^a{1}$"),
+                factory.getRegularExpression("^a{1}$"));
+    }
+
+    private static Throwable rootCause(Throwable throwable) {
+        while (throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+
+        return throwable;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.unitvectory.jsonschema4springboot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * The ValidateJsonSchemaTiming test cases.
+ *
+ * @author Jared Hatfield (UnitVectorY Labs)
+ */
+public class ValidateJsonSchemaTimingTest {
+
+    @Test
+    public void serverTimingFormatTest() {
+        ValidateJsonSchemaTiming timing = new ValidateJsonSchemaTiming();
+        assertEquals("", timing.toServerTiming());
+
+        timing.setReadNanos(1_500_000);
+        timing.setParseNanos(250_000);
+        timing.setValidateNanos(2_000_000);
+        assertEquals("jsonread;dur=1.500, jsonparse;dur=0.250, schemavalidate;dur=2.000",
+                timing.toServerTiming());
+    }
+
+    @Test
+    public void requestAttributeTest() throws Exception {
+        ValidateJsonSchemaArgumentResolver resolver = ValidateJsonSchemaArgumentResolver.newInstance();
+
+        HttpServletRequest httpServletRequest = mock(HttpServletRequest.class);
+        HttpServletResponse httpServletResponse = mock(HttpServletResponse.class);
+        ArgumentResolverMockHelper.resolveArgument(resolver, ExampleValue.class,
+                "{\"value\":\"123\"}", ValidateJsonSchemaVersion.V7,
+                "classpath:schema/simpleschemaV7.json", httpServletRequest, httpServletResponse);
+
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(httpServletRequest).setAttribute(eq(ValidateJsonSchemaTiming.ATTRIBUTE),
+                captor.capture());
+        ValidateJsonSchemaTiming timing = (ValidateJsonSchemaTiming) captor.getValue();
+        assertTrue(timing.getReadNanos() >= 0);
+        assertTrue(timing.getParseNanos() >= 0);
+        assertTrue(timing.getValidateNanos() >= 0);
+        assertTrue(timing.getBindNanos() >= 0);
+
+        // Header is disabled by default
+        verify(httpServletResponse, never()).addHeader(anyString(), anyString());
+    }
+
+    @Test
+    public void serverTimingHeaderTest() throws Exception {
+        ValidateJsonSchemaArgumentResolver resolver = ValidateJsonSchemaArgumentResolver
+                .newInstance(new ValidateJsonSchemaConfig() {
+                    @Override
+                    public boolean isServerTimingEnabled() {
+                        return true;
+                    }
+                });
+
+        HttpServletResponse httpServletResponse = mock(HttpServletResponse.class);
+        assertThrows(ValidateJsonSchemaException.class,
+                () -> ArgumentResolverMockHelper.resolveArgument(resolver, ExampleValue.class,
+                        "{}", ValidateJsonSchemaVersion.V7,
+                        "classpath:schema/simpleschemaV7.json", mock(HttpServletRequest.class),
+                        httpServletResponse));
+
+        // Bind is not reached when validation fails
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(httpServletResponse).addHeader(eq(ValidateJsonSchemaTiming.SERVER_TIMING_HEADER),
+                captor.capture());
+        String header = captor.getValue();
+        assertTrue(header.startsWith("jsonread;dur="));
+        assertTrue(header.contains("jsonparse;dur="));
+        assertTrue(header.contains("schemavalidate;dur="));
+        assertTrue(!header.contains("bind"));
+    }
+
+    @Test
+    public void multipleParametersTest() throws Exception {
+        ValidateJsonSchemaArgumentResolver resolver = ValidateJsonSchemaArgumentResolver
+                .newInstance(new ValidateJsonSchemaConfig() {
+                    @Override
+                    public boolean isServerTimingEnabled() {
+                        return true;
+                    }
+                });
+
+        // The helper stubs the body so the request is spied on
+        MockHttpServletRequest httpServletRequest = spy(new MockHttpServletRequest());
+        MockHttpServletResponse httpServletResponse = new MockHttpServletResponse();
+        httpServletResponse.addHeader(ValidateJsonSchemaTiming.SERVER_TIMING_HEADER, "app;dur=1");
+        ArgumentResolverMockHelper.resolveArgument(resolver, ExampleValue.class,
+                "{\"value\":\"123\"}", ValidateJsonSchemaVersion.V7,
+                "classpath:schema/simpleschemaV7.json", httpServletRequest, httpServletResponse);
+        ValidateJsonSchemaTiming first = (ValidateJsonSchemaTiming) httpServletRequest
+                .getAttribute(ValidateJsonSchemaTiming.ATTRIBUTE);
+        long firstValidateNanos = first.getValidateNanos();
+
+        ArgumentResolverMockHelper.resolveArgument(resolver, ExampleValue.class,
+                "{\"value\":\"456\"}", ValidateJsonSchemaVersion.V7,
+                "classpath:schema/simpleschemaV7.json", httpServletRequest, httpServletResponse);
+
+        // The second parameter is added to the timing of the first
+        ValidateJsonSchemaTiming timing = (ValidateJsonSchemaTiming) httpServletRequest
+                .getAttribute(ValidateJsonSchemaTiming.ATTRIBUTE);
+        assertSame(first, timing);
+        assertTrue(timing.getValidateNanos() >= firstValidateNanos);
+
+        // The header holds the total once, next to the header of the application
+        assertEquals(List.of("app;dur=1", timing.toServerTiming()),
+                httpServletResponse.getHeaders(ValidateJsonSchemaTiming.SERVER_TIMING_HEADER));
+    }
+
+    @Test
+    public void addTest() {
+        ValidateJsonSchemaTiming timing = new ValidateJsonSchemaTiming();
+        timing.setReadNanos(1_000_000);
+        timing.setValidateNanos(2_000_000);
+
+        ValidateJsonSchemaTiming other = new ValidateJsonSchemaTiming();
+        other.setReadNanos(500_000);
+        other.setParseNanos(250_000);
+        timing.add(other);
+
+        assertEquals("jsonread;dur=1.500, jsonparse;dur=0.250, schemavalidate;dur=2.000",
+                timing.toServerTiming());
+    }
+}